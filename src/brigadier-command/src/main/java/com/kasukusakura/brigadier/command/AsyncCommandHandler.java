@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command;
+
+import com.kasukusakura.brigadier.command.context.CommandContext;
+import com.kasukusakura.brigadier.command.exceptions.CommandSyntaxException;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A command handler completing asynchronously.
+ * <p>
+ * {@link CommandDispatcher#executeAsync(ParsedResults)} waits for the returned stage without blocking a thread,
+ * {@link CommandDispatcher#execute(ParsedResults)} blocks until it completes.
+ */
+@FunctionalInterface
+public interface AsyncCommandHandler<Src> extends CommandHandler<Src> {
+    /**
+     * @return a stage completed when the command finished, {@code null} if it already finished
+     */
+    CompletionStage<?> processAsync(CommandContext<Src> context) throws CommandSyntaxException;
+
+    @Override
+    default void process(CommandContext<Src> context) throws CommandSyntaxException {
+        CompletionStage<?> stage = processAsync(context);
+        if (stage == null) return;
+
+        try {
+            stage.toCompletableFuture().join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) throw (RuntimeException) exception.getCause();
+            throw exception;
+        }
+    }
+}
@@ -8,28 +8,111 @@ package com.kasukusakura.brigadier.command;
 import com.kasukusakura.brigadier.command.arguments.CLIComposedArgumentNode;
 import com.kasukusakura.brigadier.command.builder.ArgumentCommandNodeBuilder;
 import com.kasukusakura.brigadier.command.builder.LiteralCommandNodeBuilder;
+import com.kasukusakura.brigadier.command.cache.ParseResultCache;
+import com.kasukusakura.brigadier.command.cache.RequirementCache;
+import com.kasukusakura.brigadier.command.cache.RequirementMemo;
+import com.kasukusakura.brigadier.command.cache.TreeViewCache;
 import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
 import com.kasukusakura.brigadier.command.context.ParsedCommandNode;
 import com.kasukusakura.brigadier.command.context.StringRange;
 import com.kasukusakura.brigadier.command.context.SuggestionContext;
 import com.kasukusakura.brigadier.command.exceptions.CommandNotFoundException;
 import com.kasukusakura.brigadier.command.exceptions.CommandSyntaxException;
+import com.kasukusakura.brigadier.command.exceptions.ParseBudgetExceededException;
+import com.kasukusakura.brigadier.command.suggestion.Suggestion;
 import com.kasukusakura.brigadier.command.suggestion.SuggestionInterpreter;
+import com.kasukusakura.brigadier.command.suggestion.SuggestionRanking;
 import com.kasukusakura.brigadier.command.suggestion.Suggestions;
 import com.kasukusakura.brigadier.command.suggestion.SuggestionsBuilder;
+import com.kasukusakura.brigadier.command.tree.AdaptiveArgumentOrder;
 import com.kasukusakura.brigadier.command.tree.ArgumentCommandNode;
 import com.kasukusakura.brigadier.command.tree.CommandNode;
 import com.kasukusakura.brigadier.command.tree.LiteralCommandNode;
 import com.kasukusakura.brigadier.command.tree.RootCommandNode;
 import com.kasukusakura.brigadier.reader.AnyValueReader;
+import com.kasukusakura.brigadier.utils.BKTree;
+import com.kasukusakura.brigadier.utils.VirtualThreads;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
 
 public class CommandDispatcher<Src> {
     public final RootCommandNode<Src> root;
     public boolean enableStackTrace = true;
+    /**
+     * Reorder argument candidates by observed success rates. {@code null} to keep the registration order
+     */
+    public AdaptiveArgumentOrder adaptiveArgumentOrder;
+    /**
+     * Maximum count of nested nodes in one parse, redirects included
+     */
+    public int maxParseDepth = 1024;
+    /**
+     * Inputs longer than this are rejected before parsing
+     */
+    public int maxInputLength = Integer.MAX_VALUE;
+    /**
+     * Limits of a single parse, {@code null} for unlimited
+     */
+    public ParseBudget parseBudget;
+    public final ParseBudgetStatistics parseBudgetStatistics = new ParseBudgetStatistics();
+    /**
+     * Cache of successfully parsed string commands, {@code null} to disable
+     */
+    public ParseResultCache<Src> parseCache;
+    /**
+     * Requirement results shared between operations of the same source, {@code null} to test them once per operation
+     */
+    public RequirementCache<Src> requirementCache;
+    /**
+     * Resolves the mask checked against {@link com.kasukusakura.brigadier.command.tree.PermissionRequirement}s,
+     * {@code null} to use {@link PermissionMaskSource#getPermissionMask()}
+     */
+    public ToLongFunction<? super Src> permissionMask;
+    /**
+     * Filtered trees parsed instead of {@link #root}, {@code null} to parse the full tree with requirement checks
+     */
+    public TreeViewCache<Src> treeViews;
+    /**
+     * Parallel execution of forked contexts, {@code null} to execute them sequentially
+     */
+    public ForkExecution forkExecution;
+    /**
+     * Executor of {@link #executeAsync(ParsedResults)}, {@code null} for virtual threads if supported, else the common pool
+     */
+    public Executor asyncExecutor;
+    /**
+     * Runs the suggestion providers, {@code null} to run them on the calling thread
+     */
+    public Executor suggestionExecutor;
+    /**
+     * Maximum edit distance of the "did you mean" matches of an unknown literal or value, {@code 0} to disable.
+     * Tokens shorter than 6 characters use a smaller distance.
+     * Disabled by default, once enabled error messages get a hint appended and completions
+     * of an unknown token fall back to the close matches instead of being empty.
+     */
+    public int fuzzyMatchDistance = 0;
+    /**
+     * Maximum count of "did you mean" matches
+     */
+    public int fuzzyMatchLimit = 3;
+    /**
+     * Ranks suggestions by the frequency of their selection and execution, {@code null} to sort them alphabetically.
+     * Tokens of executed commands are recorded automatically.
+     */
+    public SuggestionRanking suggestionRanking;
 
     public CommandDispatcher() {
         this(new RootCommandNode<>());
@@ -44,114 +127,353 @@ public class CommandDispatcher<Src> {
     }
 
     public ParsedResults<Src> parse(String command, Src source) {
-        return parse(new AnyValueReader(command), source);
+        ParseResultCache<Src> cache = this.parseCache;
+        if (cache == null) {
+            return parse(new AnyValueReader(command), source);
+        }
+
+        long treeVersion = root.treeVersion();
+        ParsedResults<Src> cached = cache.get(command, source, treeVersion);
+        if (cached != null) return cached;
+
+        ParsedResults<Src> results = parse(new AnyValueReader(command), source);
+        if (isComplete(results)) {
+            cache.put(command, source, treeVersion, results);
+        }
+        return results;
+    }
+
+    /**
+     * Check the input against the tree without building the full parse results.
+     * Preprocess handlers are not run, use {@link #parse(String, Object)} for an executable result.
+     *
+     * @throws ParseBudgetExceededException if the {@link #parseBudget} is exceeded
+     */
+    public ValidationResult<Src> validate(String input, Src source) {
+        final ParseBudget budget = this.parseBudget;
+        if (budget == null) return new Validator<>(this, source, null).validate(input);
+
+        final BudgetTracker tracker = new BudgetTracker(budget);
+        try {
+            return new Validator<>(this, source, tracker).validate(input);
+        } finally {
+            tracker.finish();
+        }
+    }
+
+    /**
+     * Parse independent inputs in parallel on the common pool, the results keep the order of the inputs.
+     * <p>
+     * Parsing only reads the tree, which is frozen before the parallel phase. The tree must not be changed meanwhile.
+     *
+     * @throws ConcurrentModificationException if the tree of this dispatcher changed while parsing
+     */
+    public List<ParsedResults<Src>> parseAll(List<? extends CharSequence> inputs, Src source) {
+        CharSequence[] commands = inputs.toArray(new CharSequence[0]);
+        rootFor(source);
+        long version = root.treeVersion();
+
+        @SuppressWarnings("unchecked")
+        ParsedResults<Src>[] results = (ParsedResults<Src>[]) new ParsedResults<?>[commands.length];
+        IntStream.range(0, commands.length).parallel().forEach(i -> results[i] = parse(commands[i].toString(), source));
+
+        if (root.treeVersion() != version) {
+            throw new ConcurrentModificationException("Command tree changed during parseAll");
+        }
+        return Arrays.asList(results);
     }
 
     public ParsedResults<Src> parse(AnyValueReader reader, Src source, Consumer<CommandContextBuilder<Src>> setup) {
+        final RootCommandNode<Src> root = rootFor(source);
+
         final CommandContextBuilder<Src> context = CommandContextBuilder.newBuilder(this, source, root, reader.getCursor());
         if (setup != null) setup.accept(context);
+
+        if (maxInputLength != Integer.MAX_VALUE && reader.getTotalLength() > maxInputLength) {
+            Map<CommandNode<Src>, CommandSyntaxException> exceptions = new HashMap<>();
+            exceptions.put(root, newCommandSyntaxException("Command exceeds the maximum length " + maxInputLength));
+            return new ParsedResults<>(context, reader, exceptions);
+        }
         return parse(root, reader, context);
     }
 
     public ParsedResults<Src> parse(CommandNode<Src> startNode, AnyValueReader originalReader, CommandContextBuilder<Src> contextSoFar) {
-        Map<CommandNode<Src>, CommandSyntaxException> exceptions = null;
-        final List<ParsedResults<Src>> potentials = new ArrayList<>();
+        final ParseBudget budget = this.parseBudget;
+        if (budget == null) return parse(startNode, originalReader, contextSoFar, null);
 
+        final BudgetTracker tracker = new BudgetTracker(budget);
+        try {
+            return parse(startNode, originalReader, contextSoFar, tracker);
+        } finally {
+            tracker.finish();
+        }
+    }
+
+    private ParsedResults<Src> parse(CommandNode<Src> startNode, AnyValueReader originalReader, CommandContextBuilder<Src> contextSoFar, BudgetTracker tracker) {
         final Src source = contextSoFar.getSource();
+        final AdaptiveArgumentOrder argumentOrder = this.adaptiveArgumentOrder;
+        final int maxDepth = this.maxParseDepth;
+        final RequirementMemo<Src> requirements = newRequirementMemo(source);
 
-        for (CommandNode<Src> child : startNode.getRelevantNodes(originalReader)) {
-            if (!child.getRequirement().test(source)) continue;
+        // Every frame is a node whose children are being tried, the top one is the deepest node
+        final Deque<ParseFrame<Src>> stack = new ArrayDeque<>();
+        ParseFrame<Src> frame = new ParseFrame<>(startNode, originalReader, contextSoFar, argumentOrder, 1);
 
-            CommandContextBuilder<Src> context = contextSoFar.copy();
-            AnyValueReader reader = originalReader.copy();
+        while (true) {
+            ParsedResults<Src> completed = null;
 
-            if (child instanceof CLIComposedArgumentNode) { // special implementation
-                try {
-                    child.parse(context, reader);
-                    return new ParsedResults<>(context, reader, null);
-                } catch (CommandSyntaxException exception) {
+            while (completed == null) {
+                if (!frame.children.hasNext()) {
+                    completed = frame.result();
+                    break;
+                }
+
+                CommandNode<Src> child = frame.children.next();
+                if (!requirements.test(child)) continue;
 
-                    if (exceptions == null) exceptions = new HashMap<>();
-                    exceptions.put(child, exception);
+                if (tracker != null) tracker.attempt();
 
-                    return new ParsedResults<>(context, reader, exceptions);
+                if (child.getClass() == LiteralCommandNode.class) {
+                    // Rejected before anything is copied
+                    CommandSyntaxException mismatch = ((LiteralCommandNode<Src>) child).mismatch(this, frame.originalReader);
+                    if (mismatch != null) {
+                        frame.fail(child, mismatch);
+                        continue;
+                    }
+                }
+
+                if (tracker != null) tracker.copy();
+                CommandContextBuilder<Src> context = frame.contextSoFar.copy();
+                AnyValueReader reader = frame.originalReader.copy();
+
+                if (child instanceof CLIComposedArgumentNode) { // special implementation
+                    try {
+                        child.parse(context, reader);
+                        completed = new ParsedResults<>(context, reader, null);
+                    } catch (CommandSyntaxException exception) {
+                        completed = new ParsedResults<>(context, reader, frame.fail(child, exception));
+                    }
+                    break;
                 }
-            }
 
-            try {
                 try {
-                    child.parse(context, reader);
+                    parseChild(child, context, reader);
                 } catch (CommandSyntaxException syntaxException) {
-                    throw syntaxException;
-                } catch (Exception runtimeException) {
-                    throw newCommandSyntaxException(runtimeException);
+                    frame.node.recordArgumentAttempt(child, false, argumentOrder);
+                    frame.fail(child, syntaxException);
+                    continue;
                 }
 
+                frame.node.recordArgumentAttempt(child, true, argumentOrder);
+
                 if (reader.canRead()) {
-                    if (!Character.isWhitespace(reader.peekChar())) {
-                        throw newCommandSyntaxException("Dispatcher excepted arguments");
+                    reader.readChar(); // splitter
+
+                    if (frame.depth >= maxDepth) {
+                        frame.fail(child, newCommandSyntaxException("Command nesting exceeds the maximum depth " + maxDepth));
+                        continue;
+                    }
+
+                    stack.push(frame);
+                    if (child.getRedirect() != null) {
+                        frame.redirectContext = context;
+                        CommandContextBuilder<Src> childContext = context.newBuilderForChild(this, source, child.getRedirect(), reader.getCursor());
+                        frame = new ParseFrame<>(child.getRedirect(), reader, childContext, argumentOrder, frame.depth + 1);
+                    } else {
+                        frame.redirectContext = null;
+                        frame = new ParseFrame<>(child, reader, context, argumentOrder, frame.depth + 1);
                     }
+                    continue;
                 }
 
-                CommandPreprocessHandler<Src> preprocessed = child.getPreprocessHandler();
-                Boolean newSetting = child.inheritCommandHandlerForChild();
+                frame.offer(new ParsedResults<>(context, reader, null));
+            }
 
-                if (newSetting != null) context.inheritCommandHandlerForChild(newSetting);
+            // Deliver the result to the parent frames
+            while (true) {
+                ParseFrame<Src> parent = stack.poll();
+                if (parent == null) return completed;
 
-                if (preprocessed != null) {
-                    context.withCommand(preprocessed.parse(context.dropSource()));
-                } else if (!context.inheritCommandHandlerForChild()) {
-                    context.withCommand(null);
+                frame = parent;
+                if (parent.redirectContext == null) {
+                    parent.offer(completed);
+                    break;
                 }
 
-            } catch (CommandSyntaxException syntaxException) {
-                if (exceptions == null) exceptions = new LinkedHashMap<>();
+                completed = new ParsedResults<>(parent.redirectContext.withChild(completed.context), completed.reader, completed.exceptions);
+            }
+        }
+    }
 
-                exceptions.put(child, syntaxException);
-                continue;
+    private void parseChild(CommandNode<Src> child, CommandContextBuilder<Src> context, AnyValueReader reader) throws CommandSyntaxException {
+        try {
+            child.parse(context, reader);
+        } catch (CommandSyntaxException syntaxException) {
+            throw syntaxException;
+        } catch (Exception runtimeException) {
+            throw newCommandSyntaxException(runtimeException);
+        }
+
+        if (reader.canRead()) {
+            if (!Character.isWhitespace(reader.peekChar())) {
+                throw newCommandSyntaxException("Dispatcher excepted arguments");
             }
+        }
+        applyCommandHandler(child, context);
+    }
 
-            potentialsCheck:
-            {
-                if (reader.canRead()) {
-                    reader.readChar(); // splitter
+    private void applyCommandHandler(CommandNode<Src> child, CommandContextBuilder<Src> context) throws CommandSyntaxException {
+        CommandPreprocessHandler<Src> preprocessed = child.getPreprocessHandler();
+        Boolean newSetting = child.inheritCommandHandlerForChild();
 
-                    if (child.getRedirect() != null) {
-                        final CommandContextBuilder<Src> childContext = context.newBuilderForChild(this, source, child.getRedirect(), reader.getCursor());
-                        final ParsedResults<Src> parse = parse(child.getRedirect(), reader, childContext);
-                        context.withChild(parse.context);
-                        return new ParsedResults<>(context, parse.reader, parse.exceptions);
-                    } else {
-                        ParsedResults<Src> parsed = parse(child, reader, context);
-                        potentials.add(parsed);
-                        break potentialsCheck;
-                    }
+        if (newSetting != null) context.inheritCommandHandlerForChild(newSetting);
+
+        if (preprocessed != null) {
+            context.withCommand(preprocessed.parse(context.dropSource()));
+        } else if (!context.inheritCommandHandlerForChild()) {
+            context.withCommand(null);
+        }
+    }
+
+    final class BudgetTracker {
+        private final ParseBudget budget;
+        private final long start = System.nanoTime();
+        private long attempts;
+        private long copies;
+        private boolean aborted;
+
+        BudgetTracker(ParseBudget budget) {
+            this.budget = budget;
+        }
+
+        /**
+         * Called before a child is tried
+         */
+        void attempt() throws ParseBudgetExceededException {
+            attempts++;
+            if (attempts > budget.maxNodeAttempts) {
+                throw abort(ParseBudget.Limit.NODE_ATTEMPTS, attempts);
+            }
+            if ((attempts & 0xF) == 0) {
+                long nanos = System.nanoTime() - start;
+                if (nanos > budget.maxNanos) {
+                    throw abort(ParseBudget.Limit.NANOS, nanos);
                 }
+            }
+        }
 
-                potentials.add(new ParsedResults<>(context, reader, exceptions));
+        /**
+         * Called before the reader of the frame is copied for a child
+         */
+        void copy() throws ParseBudgetExceededException {
+            copies++;
+            if (copies > budget.maxReaderCopies) {
+                throw abort(ParseBudget.Limit.READER_COPIES, copies);
             }
         }
 
-        if (!potentials.isEmpty()) {
-            potentials.sort((a, b) -> {
-                if (!a.reader.canRead() && b.reader.canRead()) {
-                    return -1;
-                }
-                if (a.reader.canRead() && !b.reader.canRead()) {
-                    return 1;
-                }
-                if (a.exceptions.isEmpty() && !b.exceptions.isEmpty()) {
-                    return -1;
-                }
-                if (!a.exceptions.isEmpty() && b.exceptions.isEmpty()) {
-                    return 1;
-                }
-                return 0;
-            });
-            return potentials.get(0);
+        private ParseBudgetExceededException abort(ParseBudget.Limit limit, long used) {
+            aborted = true;
+            return new ParseBudgetExceededException(limit, used,
+                    "Parse aborted: " + limit + " exceeds the limit " + budget.limitOf(limit),
+                    enableStackTrace
+            );
         }
 
-        return new ParsedResults<>(contextSoFar, originalReader, exceptions);
+        void finish() {
+            parseBudgetStatistics.record(attempts, copies, System.nanoTime() - start, aborted);
+        }
+    }
+
+    private static final class ParseFrame<Src> {
+        final CommandNode<Src> node;
+        final AnyValueReader originalReader;
+        final CommandContextBuilder<Src> contextSoFar;
+        final Iterator<? extends CommandNode<Src>> children;
+        final AdaptiveArgumentOrder argumentOrder;
+        final int depth;
+
+        Map<CommandNode<Src>, CommandSyntaxException> exceptions;
+        ParsedResults<Src> best;
+        /**
+         * Not null if the child being parsed is a redirect
+         */
+        CommandContextBuilder<Src> redirectContext;
+
+        ParseFrame(CommandNode<Src> node, AnyValueReader originalReader, CommandContextBuilder<Src> contextSoFar, AdaptiveArgumentOrder argumentOrder, int depth) {
+            this.node = node;
+            this.originalReader = originalReader;
+            this.contextSoFar = contextSoFar;
+            this.argumentOrder = argumentOrder;
+            this.depth = depth;
+            this.children = node.getRelevantNodes(originalReader, argumentOrder).iterator();
+        }
+
+        Map<CommandNode<Src>, CommandSyntaxException> fail(CommandNode<Src> child, CommandSyntaxException exception) {
+            if (exceptions == null) exceptions = new LinkedHashMap<>();
+            exceptions.put(child, exception);
+            return exceptions;
+        }
+
+        void offer(ParsedResults<Src> potential) {
+            if (best == null || compare(potential, best) < 0) {
+                best = potential;
+            }
+            if (argumentOrder != null && argumentOrder.shortCircuit && isComplete(potential)) {
+                exhaust();
+            }
+        }
+
+        private void exhaust() {
+            while (children.hasNext()) children.next();
+        }
+
+        ParsedResults<Src> result() {
+            if (best != null) return best;
+            return new ParsedResults<>(contextSoFar, originalReader, exceptions);
+        }
+
+        private static int compare(ParsedResults<?> a, ParsedResults<?> b) {
+            if (!a.reader.canRead() && b.reader.canRead()) {
+                return -1;
+            }
+            if (a.reader.canRead() && !b.reader.canRead()) {
+                return 1;
+            }
+            boolean aFailed = a.exceptions != null && !a.exceptions.isEmpty();
+            boolean bFailed = b.exceptions != null && !b.exceptions.isEmpty();
+            if (!aFailed && bFailed) {
+                return -1;
+            }
+            if (aFailed && !bFailed) {
+                return 1;
+            }
+            return 0;
+        }
+    }
+
+    private static boolean isComplete(ParsedResults<?> results) {
+        return !results.reader.canRead() && (results.exceptions == null || results.exceptions.isEmpty());
+    }
+
+    /**
+     * @return the tree view of the source, or the full tree
+     * @see #treeViews
+     */
+    public RootCommandNode<Src> rootFor(Src source) {
+        root.freeze();
+        TreeViewCache<Src> views = this.treeViews;
+        if (views == null || source == null) return root;
+
+        return views.view(this, source);
+    }
+
+    public RequirementMemo<Src> newRequirementMemo(Src source) {
+        ToLongFunction<? super Src> permissionMask = this.permissionMask;
+        if (permissionMask == null) {
+            return new RequirementMemo<>(source, requirementCache);
+        }
+        return new RequirementMemo<>(source, permissionMask.applyAsLong(source), requirementCache);
     }
 
     public CommandSyntaxException newCommandSyntaxException(String message) {
@@ -179,64 +501,558 @@ public class CommandDispatcher<Src> {
     }
 
     public void execute(ParsedResults<Src> results) throws CommandSyntaxException {
+        execute(results, new ExecutionSummary.Collector(false));
+    }
+
+    /**
+     * Execute like {@link #execute(ParsedResults)}, but failures of forked contexts are collected
+     * into the summary instead of aborting their siblings
+     */
+    public ExecutionSummary executeWithSummary(ParsedResults<Src> results) throws CommandSyntaxException {
+        ExecutionSummary.Collector summary = new ExecutionSummary.Collector(true);
+        execute(results, summary);
+        return summary.summary();
+    }
+
+    public ExecutionSummary executeWithSummary(String command, Src source) {
+        return executeWithSummary(parse(command, source));
+    }
+
+    private void execute(ParsedResults<Src> results, ExecutionSummary.Collector summary) throws CommandSyntaxException {
+        checkExecutable(results);
+        recordExecution(results);
+
+        List<CommandContextBuilder<Src>> contexts = Collections.singletonList(results.context.withResults(results));
+        boolean forked = executeLevels(contexts, results, false, summary, true, null);
+
+        if (summary.commands.get() == 0 && !summary.collects(forked)) {
+            throw newCommandNotFoundException("Unknown or incomplete command: " + results.reader.fetchContent(0, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Execute without blocking the caller. Each redirect level runs as a task on {@link #asyncExecutor},
+     * the next level starts once the {@link AsyncCommandHandler}s of the previous one completed.
+     *
+     * @return a future completed with the summary, or with the exception aborting the execution
+     */
+    public CompletableFuture<ExecutionSummary> executeAsync(ParsedResults<Src> results) {
+        CompletableFuture<ExecutionSummary> result = new CompletableFuture<>();
+        try {
+            checkExecutable(results);
+        } catch (CommandSyntaxException exception) {
+            result.completeExceptionally(exception);
+            return result;
+        }
+        recordExecution(results);
+
+        List<CommandContextBuilder<Src>> contexts = Collections.singletonList(results.context.withResults(results));
+        executeLevelAsync(contexts, results, false, new ExecutionSummary.Collector(true), asyncExecutor(), result);
+        return result;
+    }
+
+    public CompletableFuture<ExecutionSummary> executeAsync(String command, Src source) {
+        return executeAsync(parse(command, source));
+    }
+
+    private void executeLevelAsync(
+            List<CommandContextBuilder<Src>> contexts,
+            ParsedResults<Src> results,
+            boolean forked,
+            ExecutionSummary.Collector summary,
+            Executor executor,
+            CompletableFuture<ExecutionSummary> result
+    ) {
+        executor.execute(() -> {
+            try {
+                List<CompletableFuture<?>> pending = new ArrayList<>();
+                List<CommandContextBuilder<Src>> next = null;
+                boolean levelForked = forked;
+                for (CommandContextBuilder<Src> context : contexts) {
+                    levelForked |= context.isForked();
+
+                    List<CommandContextBuilder<Src>> children = executeContext(context, results, levelForked, summary, false, pending);
+                    if (children == null) continue;
+                    if (next == null) next = new ArrayList<>(children.size());
+                    next.addAll(children);
+                }
+
+                List<CommandContextBuilder<Src>> nextLevel = next;
+                boolean nextForked = levelForked;
+                CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(unwrap(error));
+                    } else if (nextLevel != null) {
+                        executeLevelAsync(nextLevel, results, nextForked, summary, executor, result);
+                    } else if (summary.commands.get() == 0 && !nextForked) {
+                        result.completeExceptionally(newCommandNotFoundException("Unknown or incomplete command: " + results.reader.fetchContent(0, Integer.MAX_VALUE)));
+                    } else {
+                        result.complete(summary.summary());
+                    }
+                });
+            } catch (Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        });
+    }
+
+    private Executor asyncExecutor() {
+        Executor executor = this.asyncExecutor;
+        return executor == null ? VirtualThreads.executorOrCommonPool() : executor;
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+
+    private void checkExecutable(ParsedResults<Src> results) throws CommandSyntaxException {
         if (results.reader.canRead() || (results.exceptions != null && !results.exceptions.isEmpty())) {
+            String hint = didYouMean(results);
             if (results.exceptions != null && !results.exceptions.isEmpty()) {
                 if (results.exceptions.size() == 1) {
-                    throw results.exceptions.values().iterator().next();
+                    CommandSyntaxException exception = results.exceptions.values().iterator().next();
+                    if (hint.isEmpty()) throw exception;
+                    if (exception instanceof CommandNotFoundException) {
+                        throw newCommandNotFoundException(exception.getMessage() + hint, exception);
+                    }
+                    throw newCommandSyntaxException(exception.getMessage() + hint, exception);
                 }
             }
             if (results.context.getRange().isEmpty()) {
-                throw newCommandSyntaxException("Unknown command: " + results.reader.fetchContent(0, Integer.MAX_VALUE));
+                throw newCommandSyntaxException("Unknown command: " + results.reader.fetchContent(0, Integer.MAX_VALUE) + hint);
             }
-            throw ArgumentCommandNode.incorrectArgument(results.reader, this, null);
+            throw newCommandSyntaxException(ArgumentCommandNode.incorrectArgumentMessage(results.reader) + hint);
         }
+    }
 
+    private void recordExecution(ParsedResults<Src> results) {
+        SuggestionRanking ranking = this.suggestionRanking;
+        if (ranking == null) return;
 
-        List<CommandContextBuilder<Src>> contexts = Collections.singletonList(results.context.withResults(results));
-        List<CommandContextBuilder<Src>> next = null;
-        boolean foundCommand = false;
+        for (CommandContextBuilder<Src> context = results.context; context != null; context = context.getChild()) {
+            for (ParsedCommandNode<Src> node : context.getNodes()) {
+                // argument values are user data, only literal tokens are worth ranking
+                if (node.range.isEmpty() || !(node.node instanceof LiteralCommandNode)) continue;
+                ranking.recordExecution(results.reader.fetchContent(node.range.start, node.range.end).toString());
+            }
+        }
+    }
+
+    private String didYouMean(ParsedResults<Src> results) {
+        if (fuzzyMatchDistance <= 0) return "";
 
+        AnyValueReader reader = results.reader.copy();
+        Object word = reader.readAny();
+        if (word == null) return "";
+
+        CommandNode<Src> parent;
+        try {
+            parent = results.context.findSuggestionContext(results.reader.getCursor()).parent;
+        } catch (RuntimeException ignored) {
+            return "";
+        }
+        List<String> matches = closestMatches(parent, word.toString(), results.context.getSource());
+        if (matches.isEmpty()) return "";
+        return "\n" + "Did you mean: " + String.join(", ", matches);
+    }
+
+    /**
+     * Literal children and argument values of the parent close to the word, closest first.
+     * Nothing is returned if the word is already accepted by a literal or value.
+     *
+     * @see #fuzzyMatchDistance
+     */
+    public List<String> closestMatches(CommandNode<Src> parent, String word, Src source) {
+        int maxDistance = Math.min(fuzzyMatchDistance, word.length() < 3 ? 0 : word.length() < 6 ? 1 : 2);
+        if (maxDistance <= 0 || parent instanceof SuggestionInterpreter) return Collections.emptyList();
+
+        RequirementMemo<Src> requirements = source == null ? null : newRequirementMemo(source);
+        Set<String> matches = new LinkedHashSet<>();
+        for (String name : parent.closestLiterals(word, maxDistance, Integer.MAX_VALUE)) {
+            CommandNode<Src> literal = parent.getChild(name);
+            if (requirements == null || requirements.test(literal)) matches.add(name);
+        }
+        for (CommandNode<Src> child : parent.getChildren()) {
+            if (!(child instanceof ArgumentCommandNode)) continue;
+            if (requirements != null && !requirements.test(child)) continue;
+
+            matches.addAll(((ArgumentCommandNode<Src, ?>) child).getType().closestMatches(word, maxDistance, fuzzyMatchLimit));
+        }
+        if (matches.contains(word)) return Collections.emptyList();
+
+        List<String> result = new ArrayList<>(matches);
+        result.sort(Comparator.comparingInt(match -> BKTree.distance(word, match)));
+        return result.size() > fuzzyMatchLimit ? result.subList(0, fuzzyMatchLimit) : result;
+    }
+
+    /**
+     * @return whether any executed context forked
+     */
+    private boolean executeLevels(
+            List<CommandContextBuilder<Src>> contexts,
+            ParsedResults<Src> results,
+            boolean forked,
+            ExecutionSummary.Collector summary,
+            boolean allowParallel,
+            List<CompletableFuture<?>> pending
+    ) throws CommandSyntaxException {
         while (contexts != null) {
+            ForkExecution parallel = allowParallel && pending == null ? this.forkExecution : null;
+            if (parallel != null && forked && contexts.size() >= parallel.threshold && isThreadSafe(contexts)) {
+                contexts = executeParallel(parallel, contexts, results, summary);
+                continue;
+            }
+
+            List<CommandContextBuilder<Src>> next = null;
             for (CommandContextBuilder<Src> context : contexts) {
-                CommandContextBuilder<Src> child = context.getChild();
-                if (child != null && context.doExecuteChild()) {
-                    if (child.hasNodes()) {
-                        RedirectModifier<Src> modifier = context.getRedirectModifier();
-                        if (modifier == null) {
-                            if (next == null) next = new ArrayList<>(1);
-
-                            next.add(child.copyFor(context.getSource()).withResults(results));
-                        } else {
-                            Collection<Src> redirectedExecutors = modifier.apply(context);
-                            if (redirectedExecutors != null && !redirectedExecutors.isEmpty()) {
-                                if (next == null) next = new ArrayList<>(redirectedExecutors.size());
-
-                                for (Src source : redirectedExecutors) {
-                                    next.add(child.copyFor(source).withResults(results));
-                                }
-                            }
-                        }
-                    }
-                } else if (context.getCommand() != null) {
-                    foundCommand = true;
+                forked |= context.isForked();
 
-                    context.getCommand().process(context);
+                List<CommandContextBuilder<Src>> children = executeContext(context, results, forked, summary, allowParallel, pending);
+                if (children == null) continue;
+                if (next == null) next = new ArrayList<>(children.size());
+                next.addAll(children);
+            }
+            contexts = next;
+        }
+        return forked;
+    }
+
+    /**
+     * @param pending futures of started {@link AsyncCommandHandler}s, {@code null} to wait for them
+     * @return the redirected contexts to execute in the next level, or {@code null}
+     */
+    private List<CommandContextBuilder<Src>> executeContext(
+            CommandContextBuilder<Src> context,
+            ParsedResults<Src> results,
+            boolean forked,
+            ExecutionSummary.Collector summary,
+            boolean allowParallel,
+            List<CompletableFuture<?>> pending
+    ) throws CommandSyntaxException {
+        CommandContextBuilder<Src> child = context.getChild();
+        if (child != null && context.doExecuteChild()) {
+            if (!child.hasNodes()) return null;
+
+            RedirectModifier<Src> modifier = context.getRedirectModifier();
+            if (modifier == null) {
+                return Collections.singletonList(child.copyFor(context.getSource()).withResults(results));
+            }
+            if (modifier instanceof StreamingRedirectModifier) {
+                executeStreaming((StreamingRedirectModifier<Src>) modifier, context, child, results, forked, summary, allowParallel, pending);
+                return null;
+            }
+
+            Collection<Src> redirectedExecutors;
+            try {
+                redirectedExecutors = modifier.apply(context);
+            } catch (RuntimeException exception) {
+                if (!summary.collects(forked)) throw exception;
+                summary.fail(exception);
+                return null;
+            }
+            if (redirectedExecutors == null || redirectedExecutors.isEmpty()) return null;
+
+            List<CommandContextBuilder<Src>> next = new ArrayList<>(redirectedExecutors.size());
+            for (Src source : redirectedExecutors) {
+                next.add(child.copyFor(source).withResults(results));
+            }
+            return next;
+        }
+
+        if (context.getCommand() != null) {
+            summary.commands.incrementAndGet();
+            CommandHandler<Src> command = context.getCommand();
+            try {
+                if (pending != null && command instanceof AsyncCommandHandler) {
+                    CompletionStage<?> stage = ((AsyncCommandHandler<Src>) command).processAsync(context);
+                    if (stage != null) {
+                        pending.add(track(stage, forked, summary));
+                        return null;
+                    }
                 } else {
-                    throw newCommandNotFoundException("Unknown or incomplete command: " + results.reader.fetchContent(0, Integer.MAX_VALUE));
+                    command.process(context);
+                }
+            } catch (RuntimeException exception) {
+                if (!summary.collects(forked)) throw exception;
+                summary.fail(exception);
+                return null;
+            }
+            summary.successes.incrementAndGet();
+            return null;
+        }
+
+        CommandNotFoundException exception = newCommandNotFoundException("Unknown or incomplete command: " + results.reader.fetchContent(0, Integer.MAX_VALUE));
+        if (!summary.collects(forked)) throw exception;
+        summary.fail(exception);
+        return null;
+    }
+
+    private static CompletableFuture<?> track(CompletionStage<?> stage, boolean forked, ExecutionSummary.Collector summary) {
+        return stage.toCompletableFuture().handle((ignored, error) -> {
+            if (error == null) {
+                summary.successes.incrementAndGet();
+                return null;
+            }
+            if (!summary.collects(forked)) {
+                throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+            }
+            summary.fail(unwrap(error));
+            return null;
+        });
+    }
+
+    private void executeStreaming(
+            StreamingRedirectModifier<Src> modifier,
+            CommandContextBuilder<Src> context,
+            CommandContextBuilder<Src> child,
+            ParsedResults<Src> results,
+            boolean forked,
+            ExecutionSummary.Collector summary,
+            boolean allowParallel,
+            List<CompletableFuture<?>> pending
+    ) throws CommandSyntaxException {
+        if (pending != null) {
+            pending.add(executeStreamingAsync(modifier, context, child, results, forked, summary));
+            return;
+        }
+
+        Iterator<Src> sources = null;
+        try {
+            sources = modifier.iterate(context);
+            while (sources != null) {
+                Src source;
+                try {
+                    if (!sources.hasNext()) break;
+                    source = sources.next();
+                } catch (RuntimeException exception) {
+                    if (!summary.collects(forked)) throw exception;
+                    summary.fail(exception);
+                    break;
                 }
+
+                executeLevels(Collections.singletonList(child.copyFor(source).withResults(results)), results, forked, summary, allowParallel, pending);
             }
+        } catch (RuntimeException exception) {
+            if (!summary.collects(forked) || sources != null) throw exception;
+            summary.fail(exception); // Failed to create the iterator
+        } finally {
+            if (sources instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) sources).close();
+                } catch (Exception ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Asynchronous form of {@link #executeStreaming}, the next source is produced once the chain
+     * of the previous one, including its {@link AsyncCommandHandler}s, completed.
+     */
+    private CompletableFuture<?> executeStreamingAsync(
+            StreamingRedirectModifier<Src> modifier,
+            CommandContextBuilder<Src> context,
+            CommandContextBuilder<Src> child,
+            ParsedResults<Src> results,
+            boolean forked,
+            ExecutionSummary.Collector summary
+    ) throws CommandSyntaxException {
+        Iterator<Src> sources;
+        try {
+            sources = modifier.iterate(context);
+        } catch (RuntimeException exception) {
+            if (!summary.collects(forked)) throw exception;
+            summary.fail(exception);
+            return CompletableFuture.completedFuture(null);
+        }
+        if (sources == null) return CompletableFuture.completedFuture(null);
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        streamNext(sources, child, results, forked, summary, done);
+        return done.whenComplete((value, error) -> {
+            if (sources instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) sources).close();
+                } catch (Exception ignored) {
+                }
+            }
+        });
+    }
+
+    private void streamNext(
+            Iterator<Src> sources,
+            CommandContextBuilder<Src> child,
+            ParsedResults<Src> results,
+            boolean forked,
+            ExecutionSummary.Collector summary,
+            CompletableFuture<Void> done
+    ) {
+        try {
+            while (true) {
+                Src source;
+                try {
+                    if (!sources.hasNext()) break;
+                    source = sources.next();
+                } catch (RuntimeException exception) {
+                    if (!summary.collects(forked)) throw exception;
+                    summary.fail(exception);
+                    break;
+                }
+
+                CompletableFuture<?> chain = executeLevelsChained(
+                        Collections.singletonList(child.copyFor(source).withResults(results)), results, forked, summary
+                );
+                if (chain.isDone() && !chain.isCompletedExceptionally()) continue;
+
+                chain.whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        done.completeExceptionally(unwrap(error));
+                    } else {
+                        asyncExecutor().execute(() -> streamNext(sources, child, results, forked, summary, done));
+                    }
+                });
+                return;
+            }
+            done.complete(null);
+        } catch (Throwable throwable) {
+            done.completeExceptionally(throwable);
+        }
+    }
 
+    /**
+     * Execute the levels like {@link #executeLevels}, each level starting once the {@link AsyncCommandHandler}s
+     * of the previous one completed.
+     *
+     * @return a future completed with the last level
+     */
+    private CompletableFuture<Void> executeLevelsChained(
+            List<CommandContextBuilder<Src>> contexts,
+            ParsedResults<Src> results,
+            boolean forked,
+            ExecutionSummary.Collector summary
+    ) throws CommandSyntaxException {
+        while (contexts != null) {
+            List<CompletableFuture<?>> pending = new ArrayList<>();
+            List<CommandContextBuilder<Src>> next = null;
+            for (CommandContextBuilder<Src> context : contexts) {
+                forked |= context.isForked();
+
+                List<CommandContextBuilder<Src>> children = executeContext(context, results, forked, summary, false, pending);
+                if (children == null) continue;
+                if (next == null) next = new ArrayList<>(children.size());
+                next.addAll(children);
+            }
+
+            CompletableFuture<Void> level = CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]));
+            if (next == null) return level;
+            if (!level.isDone()) {
+                List<CommandContextBuilder<Src>> nextLevel = next;
+                boolean nextForked = forked;
+                return level.thenComposeAsync(ignored -> {
+                    try {
+                        return executeLevelsChained(nextLevel, results, nextForked, summary);
+                    } catch (CommandSyntaxException exception) {
+                        CompletableFuture<Void> failed = new CompletableFuture<>();
+                        failed.completeExceptionally(exception);
+                        return failed;
+                    }
+                }, asyncExecutor());
+            }
+            level.join();
             contexts = next;
-            next = null;
         }
+        return CompletableFuture.completedFuture(null);
+    }
 
-        if (!foundCommand) {
-            throw newCommandNotFoundException("Unknown or incomplete command: " + results.reader.fetchContent(0, Integer.MAX_VALUE));
+    private List<CommandContextBuilder<Src>> executeParallel(
+            ForkExecution parallel,
+            List<CommandContextBuilder<Src>> contexts,
+            ParsedResults<Src> results,
+            ExecutionSummary.Collector summary
+    ) {
+        boolean barrier = parallel.ordering == ForkExecution.Ordering.LEVEL_BARRIER;
+        @SuppressWarnings("unchecked")
+        List<CommandContextBuilder<Src>>[] nextLevels = (List<CommandContextBuilder<Src>>[]) new List<?>[contexts.size()];
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[contexts.size()];
+        // Failures are thrown without a summary, the branches not started yet are skipped like sequential ones
+        AtomicBoolean failed = summary.collects(true) ? null : new AtomicBoolean();
+
+        for (int i = 0; i < futures.length; i++) {
+            int index = i;
+            CommandContextBuilder<Src> context = contexts.get(i);
+            futures[i] = CompletableFuture.runAsync(() -> {
+                if (failed != null && failed.get()) return;
+                try {
+                    if (barrier) {
+                        nextLevels[index] = executeContext(context, results, true, summary, false, null);
+                    } else {
+                        // Nested levels of a branch run on this thread
+                        executeLevels(Collections.singletonList(context), results, true, summary, false, null);
+                    }
+                } catch (Throwable error) {
+                    if (failed != null) failed.set(true);
+                    throw error;
+                }
+            }, parallel.executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof Error) throw (Error) exception.getCause();
+            if (exception.getCause() instanceof RuntimeException) throw (RuntimeException) exception.getCause();
+            throw exception;
         }
 
+        List<CommandContextBuilder<Src>> next = null;
+        for (List<CommandContextBuilder<Src>> children : nextLevels) {
+            if (children == null) continue;
+            if (next == null) next = new ArrayList<>(children.size() * nextLevels.length);
+            next.addAll(children);
+        }
+        return next;
+    }
+
+    private static <Src> boolean isThreadSafe(List<CommandContextBuilder<Src>> contexts) {
+        for (CommandContextBuilder<Src> context : contexts) {
+            if (!isThreadSafe(context)) return false;
+        }
+        return true;
+    }
+
+    private static <Src> boolean isThreadSafe(CommandContextBuilder<Src> context) {
+        while (true) {
+            CommandContextBuilder<Src> child = context.getChild();
+            if (child != null && context.doExecuteChild()) {
+                RedirectModifier<Src> modifier = context.getRedirectModifier();
+                if (modifier != null && !modifier.isThreadSafe()) return false;
+                context = child;
+                continue;
+            }
+            return context.getCommand() != null && context.getCommand().isThreadSafe();
+        }
     }
 
     public CompletableFuture<Suggestions> getCompletionSuggestions(ParsedResults<Src> results, int cursor) {
+        return getCompletionSuggestions(results, cursor, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param limit maximum count of suggestions, each node stops collecting once it has that many
+     */
+    public CompletableFuture<Suggestions> getCompletionSuggestions(ParsedResults<Src> results, int cursor, int limit) {
+        return getCompletionSuggestions(results, cursor, limit, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Collect suggestions until the deadline. At the deadline, the result is completed with the suggestions
+     * of the providers completed so far, and the other providers are cancelled.
+     *
+     * @param timeout time until the deadline, {@code 0} for no deadline
+     */
+    public CompletableFuture<Suggestions> getCompletionSuggestions(ParsedResults<Src> results, int cursor, int limit, long timeout, TimeUnit unit) {
         CommandContextBuilder<Src> context = results.context;
 
         SuggestionContext<Src> nodeBeforeCursor = context.findSuggestionContext(cursor);
@@ -253,35 +1069,115 @@ public class CommandDispatcher<Src> {
                         : parent.getChildren().size()
                 ];
 
+        RequirementMemo<Src> requirements = parent instanceof SuggestionInterpreter
+                ? null
+                : newRequirementMemo(context.getSource());
+        SuggestionRanking ranking = this.suggestionRanking;
+        Comparator<Suggestion> order = ranking == null ? null : ranking.newOrder();
+        Executor executor = this.suggestionExecutor;
+        CompletableFuture<?>[] tasks = executor == null ? null : new CompletableFuture<?>[futures.length];
+        AtomicReferenceArray<CompletableFuture<Suggestions>> providers = executor == null ? null : new AtomicReferenceArray<>(futures.length);
+        AtomicBoolean expired = new AtomicBoolean();
+
         int i = 0;
         for (final CommandNode<Src> node : (
                 parent instanceof SuggestionInterpreter
                         ? Collections.singletonList(parent)
                         : parent.getChildren()
         )) {
-            CompletableFuture<Suggestions> future = null;
-            try {
-                future = node.listSuggestions(results.context, new SuggestionsBuilder(
-                        currentValue, remainingAsString, remainingAsStringLowercase, start
-                ));
-            } catch (CommandSyntaxException ignored) {
+            if (requirements != null && !requirements.test(node)) {
+                futures[i++] = Suggestions.empty();
+                continue;
             }
+            SuggestionsBuilder builder = new SuggestionsBuilder(
+                    currentValue, remainingAsString, remainingAsStringLowercase, start, limit, order
+            );
 
-            futures[i++] = future == null ? Suggestions.empty() : future;
+            if (executor != null) {
+                final int index = i;
+                CompletableFuture<CompletableFuture<Suggestions>> task = CompletableFuture.supplyAsync(() -> {
+                    CompletableFuture<Suggestions> provider = listSuggestions(node, results.context, builder);
+                    providers.set(index, provider);
+                    // The deadline passed before the provider was published
+                    if (expired.get()) provider.cancel(true);
+                    return provider;
+                }, executor);
+                tasks[i] = task;
+                futures[i++] = task.thenCompose(future -> future);
+            } else {
+                futures[i++] = listSuggestions(node, results.context, builder);
+            }
         }
 
         final CompletableFuture<Suggestions> result = new CompletableFuture<>();
-        CompletableFuture.allOf(futures).thenRun(() -> {
-            final List<Suggestions> suggestions = new ArrayList<>();
-            for (final CompletableFuture<Suggestions> future : futures) {
-                suggestions.add(future.join());
+        CompletableFuture.allOf(futures).whenComplete((ignored, error) -> {
+            Suggestions merged = mergeCompleted(futures, limit, order);
+            if (merged.suggestions.isEmpty() && !remainingAsString.isEmpty()) {
+                // Nothing starts with the token, offer the close matches
+                SuggestionsBuilder builder = new SuggestionsBuilder(currentValue, remainingAsString, remainingAsStringLowercase, start, limit, order);
+                for (String match : closestMatches(parent, remainingAsString, context.getSource())) {
+                    builder.suggest(match);
+                }
+                merged = builder.build();
             }
-            result.complete(Suggestions.merge(suggestions));
+            result.complete(merged);
         });
 
+        if (timeout > 0 && !result.isDone()) {
+            ScheduledFuture<?> deadline = Deadlines.SCHEDULER.schedule(() -> {
+                if (result.isDone()) return;
+
+                expired.set(true);
+                Suggestions completed = mergeCompleted(futures, limit, order);
+                // Cancelled providers are ignored if the cancellation completes the result first
+                if (tasks != null) {
+                    for (int index = 0; index < tasks.length; index++) {
+                        if (tasks[index] != null) tasks[index].cancel(true); // Skips the providers not started yet
+                        CompletableFuture<Suggestions> provider = providers.get(index);
+                        if (provider != null) provider.cancel(true);
+                    }
+                }
+                for (CompletableFuture<Suggestions> future : futures) {
+                    future.cancel(true);
+                }
+                result.complete(completed);
+            }, timeout, unit);
+            result.whenComplete((ignored, error) -> deadline.cancel(false));
+        }
+
         return result;
     }
 
+    private static <Src> CompletableFuture<Suggestions> listSuggestions(CommandNode<Src> node, CommandContextBuilder<Src> context, SuggestionsBuilder builder) {
+        try {
+            CompletableFuture<Suggestions> future = node.listSuggestions(context, builder);
+            return future == null ? Suggestions.empty() : future;
+        } catch (CommandSyntaxException ignored) {
+            return Suggestions.empty();
+        }
+    }
+
+    /**
+     * Failed, cancelled and pending providers are ignored
+     */
+    private static Suggestions mergeCompleted(CompletableFuture<Suggestions>[] futures, int limit, Comparator<Suggestion> order) {
+        List<Suggestions> suggestions = new ArrayList<>(futures.length);
+        for (CompletableFuture<Suggestions> future : futures) {
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                suggestions.add(future.join());
+            }
+        }
+        return Suggestions.merge(suggestions, limit, order);
+    }
+
+    private static final class Deadlines {
+        static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "Brigadier Suggestion Deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     public LiteralCommandNodeBuilder<Src> newLiteral() {
         return new LiteralCommandNodeBuilder<>();
     }
@@ -302,13 +1198,73 @@ public class CommandDispatcher<Src> {
     }
 
     public void execute(String command, Src source) {
-        execute(parse(new AnyValueReader(command), source));
+        execute(parse(command, source));
+    }
+
+    /**
+     * Resolve a command template once, values of its {@code {parameters}} are supplied on each execution.
+     *
+     * @see PreparedCommand
+     */
+    public PreparedCommand<Src> prepare(String template) throws CommandSyntaxException {
+        root.freeze();
+        return new PreparedCommand<>(template, PreparedCommand.resolve(this, template));
+    }
+
+    public void execute(PreparedCommand<Src> command, Src source, Object... arguments) throws CommandSyntaxException {
+        execute(bind(command, source, arguments));
+    }
+
+    /**
+     * Build the parsed results of a prepared command without parsing its template again.
+     * Node requirements are checked against {@code source}.
+     */
+    public ParsedResults<Src> bind(PreparedCommand<Src> command, Src source, Object... arguments) throws CommandSyntaxException {
+        if (arguments.length != command.getParameterNames().size()) {
+            throw new IllegalArgumentException("Excepted " + command.getParameterNames().size() + " arguments but got " + arguments.length + ": " + command.template);
+        }
+        root.freeze();
+        PreparedCommand.Path<Src> path = command.path(this);
+
+        RequirementMemo<Src> requirements = newRequirementMemo(source);
+        List<CommandContextBuilder<Src>> contexts = new ArrayList<>(path.levels.size());
+        CommandContextBuilder<Src> context = null;
+        for (PreparedCommand.Level<Src> level : path.levels) {
+            int start = level.steps.isEmpty() ? command.template.length() : level.steps.get(0).range.start;
+            context = context == null
+                    ? CommandContextBuilder.newBuilder(this, source, level.start, start)
+                    : context.newBuilderForChild(this, source, level.start, start);
+            contexts.add(context);
+
+            for (PreparedCommand.Step<Src> step : level.steps) {
+                if (!requirements.test(step.node)) {
+                    throw newCommandNotFoundException("Unknown command: " + command.template);
+                }
+                if (step.node instanceof ArgumentCommandNode) {
+                    Object value = step.parameter == -1 ? step.constant : arguments[step.parameter];
+                    ((ArgumentCommandNode<Src, ?>) step.node).bind(context, value, step.range);
+                } else {
+                    context.withNode(step.node, step.range);
+                }
+                applyCommandHandler(step.node, context);
+            }
+        }
+        for (int i = contexts.size() - 1; i > 0; i--) {
+            contexts.get(i - 1).withChild(contexts.get(i));
+        }
+
+        AnyValueReader reader = new AnyValueReader(command.template);
+        reader.setCursor(reader.getTotalLength());
+        return new ParsedResults<>(contexts.get(0), reader, null);
     }
 
     public StringBuilder renderHelpUsage(StringBuilder prefix, CommandNode<Src> node, Src source) {
         StringBuilder content = new StringBuilder();
         boolean isRoot = node instanceof RootCommandNode;
-        node.renderUsageMessage(prefix, content, !isRoot, true, !isRoot, source);
+        root.freeze();
+        if (node == root) node = rootFor(source);
+        RequirementMemo<Src> requirements = source == null ? null : newRequirementMemo(source);
+        node.renderUsageMessage(prefix, content, !isRoot, true, !isRoot, requirements);
         return content;
     }
 
@@ -322,7 +1278,7 @@ public class CommandDispatcher<Src> {
 
     public StringBuilder renderHelpUsage(StringBuilder prefix, ParsedResults<Src> results) {
         StringRange startRange = results.context.getRange();
-        CommandNode<Src> theRoot = this.root;
+        CommandNode<Src> theRoot = rootFor(results.context.getSource());
         int fetchEnd = startRange.start;
         CommandContextBuilder<Src> lastContext = results.context;
         while (true) {
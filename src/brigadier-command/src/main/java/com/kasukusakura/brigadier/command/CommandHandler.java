@@ -8,6 +8,8 @@ package com.kasukusakura.brigadier.command;
 import com.kasukusakura.brigadier.command.context.CommandContext;
 import com.kasukusakura.brigadier.command.exceptions.CommandSyntaxException;
 
+import java.util.concurrent.CompletionStage;
+
 @FunctionalInterface
 public interface CommandHandler<Src> extends CommandPreprocessHandler<Src> {
     void process(CommandContext<Src> context) throws CommandSyntaxException;
@@ -16,4 +18,63 @@ public interface CommandHandler<Src> extends CommandPreprocessHandler<Src> {
     default CommandHandler<Src> parse(CommandContext<?> context) throws CommandSyntaxException {
         return this;
     }
+
+    /**
+     * @return {@code true} if this handler may process forked contexts concurrently
+     * @see ForkExecution
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+
+    /**
+     * Marks the handler thread-safe. The wrapper forwards {@link #parse(CommandContext)},
+     * the handlers it returns are marked as well, and an {@link AsyncCommandHandler} stays asynchronous.
+     */
+    static <Src> CommandHandler<Src> threadSafe(CommandHandler<Src> handler) {
+        if (handler.isThreadSafe()) return handler;
+
+        if (handler instanceof AsyncCommandHandler) {
+            AsyncCommandHandler<Src> async = (AsyncCommandHandler<Src>) handler;
+            return new AsyncCommandHandler<Src>() {
+                @Override
+                public CompletionStage<?> processAsync(CommandContext<Src> context) throws CommandSyntaxException {
+                    return async.processAsync(context);
+                }
+
+                @Override
+                public void process(CommandContext<Src> context) throws CommandSyntaxException {
+                    async.process(context);
+                }
+
+                @Override
+                public CommandHandler<Src> parse(CommandContext<?> context) throws CommandSyntaxException {
+                    CommandHandler<Src> parsed = async.parse(context);
+                    return parsed == async ? this : threadSafe(parsed);
+                }
+
+                @Override
+                public boolean isThreadSafe() {
+                    return true;
+                }
+            };
+        }
+        return new CommandHandler<Src>() {
+            @Override
+            public void process(CommandContext<Src> context) throws CommandSyntaxException {
+                handler.process(context);
+            }
+
+            @Override
+            public CommandHandler<Src> parse(CommandContext<?> context) throws CommandSyntaxException {
+                CommandHandler<Src> parsed = handler.parse(context);
+                return parsed == handler ? this : threadSafe(parsed);
+            }
+
+            @Override
+            public boolean isThreadSafe() {
+                return true;
+            }
+        };
+    }
 }
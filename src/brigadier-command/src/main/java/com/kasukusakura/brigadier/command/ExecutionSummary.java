@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outcome of {@link CommandDispatcher#executeWithSummary(ParsedResults)}.
+ * Failures are only collected from forked contexts, other failures are thrown.
+ */
+public class ExecutionSummary {
+    public final int successes;
+    public final int failures;
+    /**
+     * Exceptions of the failed forked contexts, in completion order
+     */
+    public final List<Throwable> errors;
+
+    public ExecutionSummary(int successes, int failures, List<Throwable> errors) {
+        this.successes = successes;
+        this.failures = failures;
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionSummary{successes=" + successes + ", failures=" + failures + '}';
+    }
+
+    static final class Collector {
+        final AtomicInteger commands = new AtomicInteger();
+        final AtomicInteger successes = new AtomicInteger();
+        private final List<Throwable> errors = new ArrayList<>(0);
+        private final boolean collectForked;
+
+        Collector(boolean collectForked) {
+            this.collectForked = collectForked;
+        }
+
+        /**
+         * @return whether the failure is collected instead of thrown
+         */
+        boolean collects(boolean forked) {
+            return forked && collectForked;
+        }
+
+        void fail(Throwable error) {
+            synchronized (errors) {
+                errors.add(error);
+            }
+        }
+
+        ExecutionSummary summary() {
+            synchronized (errors) {
+                return new ExecutionSummary(successes.get(), errors.size(), Collections.unmodifiableList(new ArrayList<>(errors)));
+            }
+        }
+    }
+}
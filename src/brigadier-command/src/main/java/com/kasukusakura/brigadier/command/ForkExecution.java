@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * Settings of parallel execution of forked contexts.
+ * <p>
+ * The contexts redirected by a forking node run on the executor when there are at least {@link #threshold}
+ * of them and every handler and redirect modifier they reach is {@linkplain CommandHandler#isThreadSafe() thread-safe}.
+ * Otherwise they run sequentially on the calling thread.
+ * <p>
+ * When failures are thrown instead of collected in an {@link ExecutionSummary}, the first failure skips the
+ * contexts not started yet, as sequential execution would. Contexts already running finish before it is thrown.
+ *
+ * @see CommandDispatcher#forkExecution
+ */
+public class ForkExecution {
+    public enum Ordering {
+        /**
+         * All contexts of a redirect level finish before the next level starts, the next level keeps the order of the sources
+         */
+        LEVEL_BARRIER,
+        /**
+         * Each forked context runs its whole chain of redirects on its own, without waiting for the others
+         */
+        UNORDERED,
+    }
+
+    public final Executor executor;
+    public final int threshold;
+    public final Ordering ordering;
+
+    public ForkExecution(Executor executor, int threshold, Ordering ordering) {
+        if (threshold < 2) throw new IllegalArgumentException("threshold must be at least 2: " + threshold);
+
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.threshold = threshold;
+        this.ordering = Objects.requireNonNull(ordering, "ordering");
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command;
+
+import com.kasukusakura.brigadier.utils.VirtualThreads;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Executes commands in submission order per source, and concurrently between sources.
+ * <p>
+ * Commands are queued in a mailbox per source key. A mailbox is drained by one task at a time on the executor,
+ * which parses and executes its commands one after another. Idle mailboxes are dropped.
+ */
+public class MailboxDispatcher<Src> {
+    public enum OverflowPolicy {
+        /**
+         * Fail the returned future with a {@link RejectedExecutionException}
+         */
+        REJECT,
+        /**
+         * Block the submitting thread until the mailbox has room
+         */
+        PARK,
+    }
+
+    /**
+     * Count of commands a drain runs before yielding the executor thread to other mailboxes
+     */
+    private static final int DRAIN_BATCH = 64;
+
+    public final CommandDispatcher<Src> dispatcher;
+    private final Function<? super Src, ?> key;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final Executor executor;
+
+    private final ConcurrentHashMap<Object, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAccumulator peakDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+
+    /**
+     * @param capacity maximum count of queued commands per mailbox
+     * @param executor runs the drains, {@code null} for virtual threads if supported, else the common pool
+     */
+    public MailboxDispatcher(CommandDispatcher<Src> dispatcher, Function<? super Src, ?> key, int capacity, OverflowPolicy policy, Executor executor) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+
+        this.dispatcher = Objects.requireNonNull(dispatcher, "dispatcher");
+        this.key = Objects.requireNonNull(key, "key");
+        this.capacity = capacity;
+        this.policy = Objects.requireNonNull(policy, "policy");
+        this.executor = executor == null ? VirtualThreads.executorOrCommonPool() : executor;
+    }
+
+    /**
+     * Queue the command after the previously submitted commands of the same source key.
+     *
+     * @return a future completed once the command executed
+     */
+    public CompletableFuture<ExecutionSummary> submit(String input, Src source) {
+        Object mailboxKey = key.apply(source);
+        Task<Src> task = new Task<>(input, source);
+        submitted.increment();
+
+        while (true) {
+            Mailbox mailbox = mailboxes.computeIfAbsent(mailboxKey, Mailbox::new);
+
+            if (policy == OverflowPolicy.PARK) {
+                mailbox.permits.acquireUninterruptibly();
+            } else if (!mailbox.permits.tryAcquire()) {
+                rejected.increment();
+                task.future.completeExceptionally(new RejectedExecutionException("Mailbox of " + mailboxKey + " is full"));
+                return task.future;
+            }
+
+            int pending = mailbox.pending.get();
+            while (pending >= 0 && !mailbox.pending.compareAndSet(pending, pending + 1)) {
+                pending = mailbox.pending.get();
+            }
+            if (pending < 0) {
+                // Closed by its last drain, retry with a new mailbox
+                mailbox.permits.release();
+                mailboxes.remove(mailboxKey, mailbox);
+                continue;
+            }
+
+            mailbox.queue.offer(task);
+            queued.incrementAndGet();
+            peakDepth.accumulate(pending + 1);
+            if (pending == 0) {
+                executor.execute(mailbox);
+            }
+            return task.future;
+        }
+    }
+
+    /**
+     * @return count of queued or running commands of the source key
+     */
+    public int queueDepth(Src source) {
+        Mailbox mailbox = mailboxes.get(key.apply(source));
+        return mailbox == null ? 0 : Math.max(0, mailbox.pending.get());
+    }
+
+    public int queuedCommands() {
+        return queued.get();
+    }
+
+    public int activeMailboxes() {
+        return mailboxes.size();
+    }
+
+    public long peakQueueDepth() {
+        return peakDepth.get();
+    }
+
+    public long submittedCommands() {
+        return submitted.sum();
+    }
+
+    public long rejectedCommands() {
+        return rejected.sum();
+    }
+
+    public long completedCommands() {
+        return completed.sum();
+    }
+
+    private static final class Task<Src> {
+        final String input;
+        final Src source;
+        final CompletableFuture<ExecutionSummary> future = new CompletableFuture<>();
+
+        Task(String input, Src source) {
+            this.input = input;
+            this.source = source;
+        }
+    }
+
+    private final class Mailbox implements Runnable {
+        final Object key;
+        final Queue<Task<Src>> queue = new ConcurrentLinkedQueue<>();
+        final Semaphore permits = new Semaphore(capacity);
+        /**
+         * Count of submitted but unfinished commands, {@code -1} once closed.
+         * Only the submitter increasing it from zero starts a drain, so at most one drain runs at a time.
+         */
+        final AtomicInteger pending = new AtomicInteger();
+
+        Mailbox(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            int drained = 0;
+            do {
+                Task<Src> task;
+                while ((task = queue.poll()) == null) {
+                    Thread.yield(); // Counted but not offered yet
+                }
+                permits.release();
+                queued.decrementAndGet();
+
+                try {
+                    task.future.complete(dispatcher.executeWithSummary(task.input, task.source));
+                } catch (Throwable throwable) {
+                    task.future.completeExceptionally(throwable);
+                }
+                completed.increment();
+
+                if (++drained == DRAIN_BATCH && pending.get() > 1) {
+                    pending.decrementAndGet();
+                    executor.execute(this);
+                    return;
+                }
+            } while (pending.decrementAndGet() != 0);
+
+            if (pending.compareAndSet(0, -1)) {
+                mailboxes.remove(key, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command;
+
+/**
+ * Limits of a single {@link CommandDispatcher#parse(String, Object)}.
+ * A parse exceeding any of them is aborted with a
+ * {@link com.kasukusakura.brigadier.command.exceptions.ParseBudgetExceededException}.
+ *
+ * @see CommandDispatcher#parseBudget
+ */
+public class ParseBudget {
+    public enum Limit {
+        NODE_ATTEMPTS,
+        READER_COPIES,
+        NANOS,
+    }
+
+    public final long maxNodeAttempts;
+    public final long maxReaderCopies;
+    public final long maxNanos;
+
+    public ParseBudget(long maxNodeAttempts, long maxReaderCopies, long maxNanos) {
+        if (maxNodeAttempts < 1 || maxReaderCopies < 1 || maxNanos < 1) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+        this.maxNodeAttempts = maxNodeAttempts;
+        this.maxReaderCopies = maxReaderCopies;
+        this.maxNanos = maxNanos;
+    }
+
+    public long limitOf(Limit limit) {
+        switch (limit) {
+            case NODE_ATTEMPTS:
+                return maxNodeAttempts;
+            case READER_COPIES:
+                return maxReaderCopies;
+            case NANOS:
+                return maxNanos;
+        }
+        throw new AssertionError(limit);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Usage of {@link ParseBudget} by the parses of a dispatcher.
+ * Only parses running with a budget are recorded.
+ */
+public class ParseBudgetStatistics {
+    private final LongAdder parses = new LongAdder();
+    private final LongAdder aborted = new LongAdder();
+
+    private final LongAdder[] totals = new LongAdder[ParseBudget.Limit.values().length];
+    private final LongAccumulator[] peaks = new LongAccumulator[ParseBudget.Limit.values().length];
+
+    public ParseBudgetStatistics() {
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = new LongAdder();
+            peaks[i] = new LongAccumulator(Math::max, 0);
+        }
+    }
+
+    void record(long attempts, long copies, long nanos, boolean isAborted) {
+        parses.increment();
+        if (isAborted) aborted.increment();
+
+        record(ParseBudget.Limit.NODE_ATTEMPTS, attempts);
+        record(ParseBudget.Limit.READER_COPIES, copies);
+        record(ParseBudget.Limit.NANOS, nanos);
+    }
+
+    private void record(ParseBudget.Limit limit, long value) {
+        totals[limit.ordinal()].add(value);
+        peaks[limit.ordinal()].accumulate(value);
+    }
+
+    public long parses() {
+        return parses.sum();
+    }
+
+    public long aborted() {
+        return aborted.sum();
+    }
+
+    public long total(ParseBudget.Limit limit) {
+        return totals[limit.ordinal()].sum();
+    }
+
+    /**
+     * @return the largest usage seen by a single parse
+     */
+    public long peak(ParseBudget.Limit limit) {
+        return peaks[limit.ordinal()].get();
+    }
+
+    /**
+     * @return the largest usage seen by a single parse as a fraction of the limit
+     */
+    public double peakUtilization(ParseBudget budget, ParseBudget.Limit limit) {
+        return (double) peak(limit) / budget.limitOf(limit);
+    }
+
+    public void reset() {
+        parses.reset();
+        aborted.reset();
+        for (int i = 0; i < totals.length; i++) {
+            totals[i].reset();
+            peaks[i].reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ParseBudgetStatistics{parses=").append(parses()).append(", aborted=").append(aborted());
+        for (ParseBudget.Limit limit : ParseBudget.Limit.values()) {
+            sb.append(", ").append(limit).append("={total=").append(total(limit)).append(", peak=").append(peak(limit)).append('}');
+        }
+        return sb.append('}').toString();
+    }
+}
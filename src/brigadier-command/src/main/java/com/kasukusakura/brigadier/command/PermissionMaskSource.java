@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command;
+
+/**
+ * A command source exposing its permissions as a bit mask.
+ *
+ * @see com.kasukusakura.brigadier.command.tree.PermissionRequirement
+ * @see CommandDispatcher#permissionMask
+ */
+public interface PermissionMaskSource {
+    long getPermissionMask();
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command;
+
+import com.kasukusakura.brigadier.command.arguments.CLIComposedArgumentNode;
+import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
+import com.kasukusakura.brigadier.command.context.StringRange;
+import com.kasukusakura.brigadier.command.exceptions.CommandSyntaxException;
+import com.kasukusakura.brigadier.command.tree.ArgumentCommandNode;
+import com.kasukusakura.brigadier.command.tree.CommandNode;
+import com.kasukusakura.brigadier.command.tree.LiteralCommandNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A command template parsed once by {@link CommandDispatcher#prepare(String)}.
+ * <p>
+ * Tokens of the template are separated by whitespaces. A token like {@code {name}} is a parameter
+ * matching the argument child named {@code name}, or the only argument child if no child has that name.
+ * Other tokens are matched like normal input.
+ * <p>
+ * The path is resolved again if the tree of the dispatcher was changed since the last resolution.
+ *
+ * @see CommandDispatcher#execute(PreparedCommand, Object, Object...)
+ */
+public class PreparedCommand<Src> {
+    public final String template;
+    private final List<String> parameterNames;
+    private volatile Path<Src> path;
+
+    PreparedCommand(String template, Path<Src> path) {
+        this.template = template;
+        this.path = path;
+
+        List<String> names = new ArrayList<>();
+        for (Level<Src> level : path.levels) {
+            for (Step<Src> step : level.steps) {
+                if (step.parameter != -1) names.add(step.constant.toString());
+            }
+        }
+        this.parameterNames = Collections.unmodifiableList(names);
+    }
+
+    public List<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    Path<Src> path(CommandDispatcher<Src> dispatcher) throws CommandSyntaxException {
+        Path<Src> path = this.path;
+        if (path.treeVersion != dispatcher.root.treeVersion()) {
+            this.path = path = resolve(dispatcher, template);
+        }
+        return path;
+    }
+
+    static final class Path<Src> {
+        final long treeVersion;
+        final List<Level<Src>> levels = new ArrayList<>();
+
+        Path(long treeVersion) {
+            this.treeVersion = treeVersion;
+        }
+    }
+
+    static final class Level<Src> {
+        final CommandNode<Src> start;
+        final List<Step<Src>> steps = new ArrayList<>();
+
+        Level(CommandNode<Src> start) {
+            this.start = start;
+        }
+    }
+
+    static final class Step<Src> {
+        final CommandNode<Src> node;
+        final StringRange range;
+        /**
+         * Index of the bound value, {@code -1} if fixed by the template
+         */
+        final int parameter;
+        /**
+         * The token of a fixed argument, or the name of the parameter
+         */
+        final Object constant;
+
+        Step(CommandNode<Src> node, StringRange range, int parameter, Object constant) {
+            this.node = node;
+            this.range = range;
+            this.parameter = parameter;
+            this.constant = constant;
+        }
+    }
+
+    static <Src> Path<Src> resolve(CommandDispatcher<Src> dispatcher, String template) throws CommandSyntaxException {
+        Path<Src> path = new Path<>(dispatcher.root.treeVersion());
+        Level<Src> level = new Level<>(dispatcher.root);
+        path.levels.add(level);
+
+        CommandNode<Src> node = dispatcher.root;
+        int parameters = 0;
+        int cursor = 0;
+        int length = template.length();
+
+        while (true) {
+            while (cursor < length && Character.isWhitespace(template.charAt(cursor))) cursor++;
+            if (cursor >= length) break;
+
+            int start = cursor;
+            while (cursor < length && !Character.isWhitespace(template.charAt(cursor))) cursor++;
+            String token = template.substring(start, cursor);
+            StringRange range = StringRange.between(start, cursor);
+
+            if (node.getRedirect() != null && node != level.start) {
+                level = new Level<>(node.getRedirect());
+                path.levels.add(level);
+                node = node.getRedirect();
+            }
+
+            CommandNode<Src> next;
+            if (token.length() > 2 && token.charAt(0) == '{' && token.charAt(token.length() - 1) == '}') {
+                String name = token.substring(1, token.length() - 1);
+                next = findParameter(node, name);
+                if (next == null) {
+                    throw dispatcher.newCommandSyntaxException("No argument for parameter " + token + " at " + start + ": " + template);
+                }
+                level.steps.add(new Step<>(next, range, parameters++, name));
+            } else {
+                next = node.getChild(token);
+                if (next instanceof LiteralCommandNode) {
+                    level.steps.add(new Step<>(next, range, -1, null));
+                } else {
+                    next = findArgument(dispatcher, node, token);
+                    if (next == null) {
+                        throw dispatcher.newCommandSyntaxException("Unknown token " + token + " at " + start + ": " + template);
+                    }
+                    level.steps.add(new Step<>(next, range, -1, token));
+                }
+            }
+            if (next instanceof CLIComposedArgumentNode) {
+                throw dispatcher.newCommandSyntaxException("Composed arguments can't be prepared: " + template);
+            }
+            node = next;
+        }
+
+        if (level.steps.isEmpty() && path.levels.size() == 1) {
+            throw dispatcher.newCommandSyntaxException("Empty command template");
+        }
+        return path;
+    }
+
+    private static <Src> CommandNode<Src> findParameter(CommandNode<Src> node, String name) {
+        CommandNode<Src> named = node.getChild(name);
+        if (named instanceof ArgumentCommandNode) return named;
+
+        CommandNode<Src> found = null;
+        for (CommandNode<Src> child : node.getChildren()) {
+            if (!(child instanceof ArgumentCommandNode)) continue;
+            if (found != null) return null; // ambiguous
+            found = child;
+        }
+        return found;
+    }
+
+    private static <Src> CommandNode<Src> findArgument(CommandDispatcher<Src> dispatcher, CommandNode<Src> node, String token) {
+        for (CommandNode<Src> child : node.getChildren()) {
+            if (!(child instanceof ArgumentCommandNode)) continue;
+
+            CommandContextBuilder<Src> probe = CommandContextBuilder.newBuilder(dispatcher, null, node, 0);
+            try {
+                ((ArgumentCommandNode<Src, ?>) child).bind(probe, token, StringRange.at(0));
+                return child;
+            } catch (Exception ignored) {
+            }
+        }
+        return null;
+    }
+}
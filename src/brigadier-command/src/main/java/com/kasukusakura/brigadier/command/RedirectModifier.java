@@ -14,4 +14,12 @@ import java.util.Collection;
 @FunctionalInterface
 public interface RedirectModifier<S> {
     Collection<S> apply(CommandContext<S> context) throws CommandSyntaxException;
+
+    /**
+     * @return {@code true} if this modifier may be applied to forked contexts concurrently
+     * @see ForkExecution
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command;
+
+import com.kasukusakura.brigadier.command.context.CommandContext;
+import com.kasukusakura.brigadier.command.exceptions.CommandSyntaxException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A redirect modifier producing its sources lazily.
+ * <p>
+ * The dispatcher executes the redirected chain of each source as soon as it is produced, before asking for the next one,
+ * so only one redirected context is alive at a time. Unlike collection results, the redirected contexts run depth-first.
+ * <p>
+ * If the iterator is {@link AutoCloseable}, it is closed once exhausted or when the execution fails.
+ */
+@FunctionalInterface
+public interface StreamingRedirectModifier<S> extends RedirectModifier<S> {
+    Iterator<S> iterate(CommandContext<S> context) throws CommandSyntaxException;
+
+    @Override
+    default Collection<S> apply(CommandContext<S> context) throws CommandSyntaxException {
+        List<S> sources = new ArrayList<>();
+        iterate(context).forEachRemaining(sources::add);
+        return sources;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command;
+
+import com.kasukusakura.brigadier.command.suggestion.Suggestion;
+import com.kasukusakura.brigadier.command.suggestion.SuggestionDelta;
+import com.kasukusakura.brigadier.command.suggestion.Suggestions;
+import com.kasukusakura.brigadier.command.tree.CommandNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Remembers the last suggestions of one client and answers with the changes since them.
+ * <p>
+ * When the input only grew at the cursor within the current token, the previous suggestions are filtered
+ * without parsing or asking the providers again. Providers must then suggest every candidate
+ * starting with the token, as a longer token is answered from the suggestions of a shorter one.
+ * <p>
+ * Requests of a session should not overlap, deltas are computed in completion order.
+ */
+public class SuggestionSession<Src> {
+    public final CommandDispatcher<Src> dispatcher;
+    private final int limit;
+
+    private String lastInput;
+    private int lastCursor;
+    private Src lastSource;
+    private long lastTreeVersion;
+    private Suggestions last = Suggestions.EMPTY;
+
+    public SuggestionSession(CommandDispatcher<Src> dispatcher) {
+        this(dispatcher, Integer.MAX_VALUE);
+    }
+
+    public SuggestionSession(CommandDispatcher<Src> dispatcher, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be positive: " + limit);
+
+        this.dispatcher = Objects.requireNonNull(dispatcher, "dispatcher");
+        this.limit = limit;
+    }
+
+    public CompletableFuture<SuggestionDelta> suggest(String input, int cursor, Src source) {
+        Suggestions filtered;
+        synchronized (this) {
+            filtered = filter(input, cursor, source);
+            if (filtered != null) {
+                return CompletableFuture.completedFuture(update(input, cursor, source, lastTreeVersion, filtered, true));
+            }
+        }
+
+        long treeVersion = dispatcher.root.treeVersion();
+        ParsedResults<Src> results = dispatcher.parse(input, source);
+        return dispatcher.getCompletionSuggestions(results, cursor, limit).thenApply(suggestions -> {
+            synchronized (this) {
+                return update(input, cursor, source, treeVersion, suggestions, false);
+            }
+        });
+    }
+
+    /**
+     * @return the suggestions filtered from the last ones, or {@code null} if they must be listed again
+     */
+    private Suggestions filter(String input, int cursor, Src source) {
+        String previous = lastInput;
+        if (previous == null || source != lastSource || lastTreeVersion != dispatcher.root.treeVersion()) return null;
+        if (lastCursor != previous.length() || cursor != input.length()) return null;
+        if (input.length() <= previous.length() || !input.startsWith(previous)) return null;
+        // A truncated result may miss suggestions of the longer token
+        if (last.suggestions.isEmpty() || last.suggestions.size() >= limit) return null;
+
+        for (int i = previous.length(); i < input.length(); i++) {
+            if (Character.isWhitespace(input.charAt(i))) return null;
+        }
+
+        int start = last.range.start;
+        if (start > previous.length()) return null;
+        String token = input.substring(start);
+        String tokenLowercase = token.toLowerCase();
+
+        List<Suggestion> kept = new ArrayList<>(last.suggestions.size());
+        for (Suggestion suggestion : last.suggestions) {
+            if (suggestion.text.toLowerCase().startsWith(tokenLowercase) && !suggestion.text.equals(token)) {
+                kept.add(suggestion);
+            }
+        }
+        // Nothing left, close matches may be offered instead
+        if (kept.isEmpty()) return null;
+        return new Suggestions(last.range, kept);
+    }
+
+    private SuggestionDelta update(String input, int cursor, Src source, long treeVersion, Suggestions suggestions, boolean filtered) {
+        SuggestionDelta delta = SuggestionDelta.between(last, suggestions, filtered);
+        lastInput = input;
+        lastCursor = cursor;
+        lastSource = source;
+        lastTreeVersion = treeVersion;
+        last = suggestions;
+        return delta;
+    }
+
+    /**
+     * @return the suggestions of the last request
+     */
+    public synchronized Suggestions current() {
+        return last;
+    }
+
+    /**
+     * Forget the last suggestions, the next delta contains all suggestions
+     */
+    public synchronized void reset() {
+        lastInput = null;
+        lastSource = null;
+        last = Suggestions.EMPTY;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command;
+
+import com.kasukusakura.brigadier.command.context.StringRange;
+import com.kasukusakura.brigadier.command.tree.CommandNode;
+
+import java.util.List;
+
+/**
+ * Outcome of {@link CommandDispatcher#validate(String, Object)}
+ */
+public class ValidationResult<Src> {
+    public enum Kind {
+        LITERAL,
+        ARGUMENT,
+        /**
+         * A {@link com.kasukusakura.brigadier.command.arguments.CLIComposedArgumentNode} consuming the rest of the input
+         */
+        COMPOSED,
+    }
+
+    public static final class Segment<Src> {
+        public final CommandNode<Src> node;
+        public final StringRange range;
+        public final Kind kind;
+
+        public Segment(CommandNode<Src> node, StringRange range, Kind kind) {
+            this.node = node;
+            this.range = range;
+            this.kind = kind;
+        }
+
+        @Override
+        public String toString() {
+            return kind + node.getName() + range;
+        }
+    }
+
+    /**
+     * Matched nodes of the best path, in input order
+     */
+    public final List<Segment<Src>> segments;
+    /**
+     * Farthest offset where parsing failed, {@code -1} if the whole input was matched
+     */
+    public final int errorOffset;
+
+    public ValidationResult(List<Segment<Src>> segments, int errorOffset) {
+        this.segments = segments;
+        this.errorOffset = errorOffset;
+    }
+
+    public boolean isValid() {
+        return errorOffset == -1;
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationResult{segments=" + segments + ", errorOffset=" + errorOffset + '}';
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command;
+
+import com.kasukusakura.brigadier.command.arguments.CLIComposedArgumentNode;
+import com.kasukusakura.brigadier.command.cache.RequirementMemo;
+import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
+import com.kasukusakura.brigadier.command.context.StringRange;
+import com.kasukusakura.brigadier.command.tree.CommandNode;
+import com.kasukusakura.brigadier.command.tree.LiteralCommandNode;
+import com.kasukusakura.brigadier.reader.AnyValueReader;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Matches an input against the tree like {@link CommandDispatcher#parse(String, Object)}, keeping only the node ranges.
+ * <p>
+ * Preprocess handlers are not run and no {@link ParsedResults} or exception map is built.
+ * Literals are compared by name, arguments are parsed into a copy of the context that is dropped unless they match.
+ */
+final class Validator<Src> {
+    private final CommandDispatcher<Src> dispatcher;
+    private final Src source;
+    private final CommandDispatcher<Src>.BudgetTracker tracker;
+    private final RequirementMemo<Src> requirements;
+    private final int maxDepth;
+    private int farthestError = -1;
+
+    Validator(CommandDispatcher<Src> dispatcher, Src source, CommandDispatcher<Src>.BudgetTracker tracker) {
+        this.dispatcher = dispatcher;
+        this.source = source;
+        this.tracker = tracker;
+        this.requirements = dispatcher.newRequirementMemo(source);
+        this.maxDepth = dispatcher.maxParseDepth;
+    }
+
+    ValidationResult<Src> validate(String input) {
+        if (dispatcher.maxInputLength != Integer.MAX_VALUE && input.length() > dispatcher.maxInputLength) {
+            return new ValidationResult<>(Collections.emptyList(), dispatcher.maxInputLength);
+        }
+
+        CommandNode<Src> root = dispatcher.rootFor(source);
+        Path<Src> best = walk(root, new AnyValueReader(input), CommandContextBuilder.newBuilder(dispatcher, source, root, 0));
+
+        List<ValidationResult.Segment<Src>> segments = new ArrayList<>();
+        for (Path<Src> path = best; path != null && path.segment != null; path = path.prev) {
+            segments.add(path.segment);
+        }
+        Collections.reverse(segments);
+
+        if (best.complete) return new ValidationResult<>(segments, -1);
+        return new ValidationResult<>(segments, Math.max(farthestError, best.cursor));
+    }
+
+    /**
+     * Same frame stack as {@link CommandDispatcher#parse(CommandNode, AnyValueReader, CommandContextBuilder)}
+     *
+     * @return the best path through the tree
+     */
+    private Path<Src> walk(CommandNode<Src> startNode, AnyValueReader originalReader, CommandContextBuilder<Src> contextSoFar) {
+        final Deque<Frame<Src>> stack = new ArrayDeque<>();
+        Frame<Src> frame = new Frame<>(startNode, originalReader, contextSoFar, null, 1);
+
+        while (true) {
+            Path<Src> completed = null;
+
+            while (completed == null) {
+                if (!frame.children.hasNext()) {
+                    completed = frame.result();
+                    break;
+                }
+
+                CommandNode<Src> child = frame.children.next();
+                if (!requirements.test(child)) continue;
+
+                if (tracker != null) tracker.attempt();
+
+                int cursor = frame.originalReader.getCursor();
+                boolean literal = child.getClass() == LiteralCommandNode.class;
+                if (literal && ((LiteralCommandNode<Src>) child).mismatch(dispatcher, frame.originalReader) != null) {
+                    fail(cursor);
+                    continue;
+                }
+
+                if (tracker != null) tracker.copy();
+                AnyValueReader reader = frame.originalReader.copy();
+                CommandContextBuilder<Src> context = frame.contextSoFar;
+
+                if (child instanceof CLIComposedArgumentNode) {
+                    try {
+                        child.parse(context.copy(), reader);
+                    } catch (Exception exception) {
+                        fail(cursor);
+                        continue;
+                    }
+                    frame.offer(new Path<>(frame.prev, segment(child, cursor, reader, ValidationResult.Kind.COMPOSED), reader.getCursor(), !reader.canRead()));
+                    continue;
+                }
+
+                if (literal) {
+                    reader.readAny();
+                } else {
+                    context = context.copy();
+                    try {
+                        child.parse(context, reader);
+                    } catch (Exception exception) {
+                        fail(cursor);
+                        continue;
+                    }
+                }
+
+                if (reader.canRead() && !Character.isWhitespace(reader.peekChar())) {
+                    fail(reader.getCursor());
+                    continue;
+                }
+
+                ValidationResult.Kind kind = child instanceof LiteralCommandNode ? ValidationResult.Kind.LITERAL : ValidationResult.Kind.ARGUMENT;
+                Path<Src> path = new Path<>(frame.prev, segment(child, cursor, reader, kind), reader.getCursor(), !reader.canRead());
+
+                if (reader.canRead()) {
+                    reader.readChar(); // splitter
+
+                    if (frame.depth >= maxDepth) {
+                        fail(reader.getCursor());
+                        frame.offer(path);
+                        continue;
+                    }
+
+                    stack.push(frame);
+                    if (child.getRedirect() != null) {
+                        context = context.newBuilderForChild(dispatcher, source, child.getRedirect(), reader.getCursor());
+                        frame = new Frame<>(child.getRedirect(), reader, context, path, frame.depth + 1);
+                    } else {
+                        frame = new Frame<>(child, reader, context, path, frame.depth + 1);
+                    }
+                    continue;
+                }
+
+                frame.offer(path);
+            }
+
+            Frame<Src> parent = stack.poll();
+            if (parent == null) return completed;
+
+            frame = parent;
+            frame.offer(completed);
+        }
+    }
+
+    private static <Src> ValidationResult.Segment<Src> segment(CommandNode<Src> node, int start, AnyValueReader reader, ValidationResult.Kind kind) {
+        return new ValidationResult.Segment<>(node, StringRange.between(start, reader.getCursor()), kind);
+    }
+
+    private void fail(int cursor) {
+        farthestError = Math.max(farthestError, cursor);
+    }
+
+    private static final class Frame<Src> {
+        final AnyValueReader originalReader;
+        final CommandContextBuilder<Src> contextSoFar;
+        /**
+         * The path ending at the node of this frame
+         */
+        final Path<Src> prev;
+        final Iterator<? extends CommandNode<Src>> children;
+        final int depth;
+
+        Path<Src> best;
+
+        Frame(CommandNode<Src> node, AnyValueReader originalReader, CommandContextBuilder<Src> contextSoFar, Path<Src> prev, int depth) {
+            this.originalReader = originalReader;
+            this.contextSoFar = contextSoFar;
+            this.prev = prev;
+            this.depth = depth;
+            this.children = node.getRelevantNodes(originalReader).iterator();
+        }
+
+        void offer(Path<Src> path) {
+            if (best == null || path.isBetterThan(best)) {
+                best = path;
+            }
+            if (best.complete) {
+                // The first complete path is kept, like parse does
+                while (children.hasNext()) children.next();
+            }
+        }
+
+        /**
+         * @return the best path, or the path ending at this node if no child matched
+         */
+        Path<Src> result() {
+            if (best != null) return best;
+            if (prev == null) return new Path<>(null, null, originalReader.getCursor(), false);
+            return new Path<>(prev.prev, prev.segment, originalReader.getCursor(), false);
+        }
+    }
+
+    private static final class Path<Src> {
+        final Path<Src> prev;
+        final ValidationResult.Segment<Src> segment;
+        final int cursor;
+        final boolean complete;
+
+        Path(Path<Src> prev, ValidationResult.Segment<Src> segment, int cursor, boolean complete) {
+            this.prev = prev;
+            this.segment = segment;
+            this.cursor = cursor;
+            this.complete = complete;
+        }
+
+        boolean isBetterThan(Path<?> other) {
+            if (complete != other.complete) return complete;
+            return cursor > other.cursor;
+        }
+    }
+}
@@ -12,6 +12,8 @@ import com.kasukusakura.brigadier.command.suggestion.Suggestions;
 import com.kasukusakura.brigadier.command.suggestion.SuggestionsBuilder;
 import com.kasukusakura.brigadier.reader.AnyValueReader;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public interface ArgumentType<T> {
@@ -31,4 +33,12 @@ public interface ArgumentType<T> {
         return Suggestions.empty();
     }
 
+    /**
+     * @return accepted values within the edit distance of the input, closest first
+     * @see com.kasukusakura.brigadier.utils.BKTree
+     */
+    default List<String> closestMatches(String input, int maxDistance, int limit) {
+        return Collections.emptyList();
+    }
+
 }
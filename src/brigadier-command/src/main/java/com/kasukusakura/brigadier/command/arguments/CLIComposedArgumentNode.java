@@ -7,6 +7,7 @@ package com.kasukusakura.brigadier.command.arguments;
 
 import com.kasukusakura.brigadier.command.CommandPreprocessHandler;
 import com.kasukusakura.brigadier.command.RedirectModifier;
+import com.kasukusakura.brigadier.command.cache.RequirementMemo;
 import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
 import com.kasukusakura.brigadier.command.context.ParsedCommandNode;
 import com.kasukusakura.brigadier.command.context.StringRange;
@@ -196,6 +197,7 @@ public class CLIComposedArgumentNode<Src> extends CommandNode<Src> {
     public CLIComposedArgumentNode<Src> register(ArgumentCommandNode<Src, ?> argument) {
         this.arguments.put(argument.getName(), argument);
         this.sequences.add(new Pair<>(argument.getName(), argument));
+        markTreeChanged();
         return this;
     }
 
@@ -205,7 +207,7 @@ public class CLIComposedArgumentNode<Src> extends CommandNode<Src> {
     }
 
     @Override
-    public void renderUsageMessage(StringBuilder prefix, StringBuilder content, boolean addSplitter, boolean includeChild, boolean includeAllChild, Src source) {
+    public void renderUsageMessage(StringBuilder prefix, StringBuilder content, boolean addSplitter, boolean includeChild, boolean includeAllChild, RequirementMemo<Src> requirements) {
         int prefixLength = prefix.length();
         int argsPadding = 0;
 
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.arguments;
+
+import com.kasukusakura.brigadier.command.CommandDispatcher;
+import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
+import com.kasukusakura.brigadier.command.exceptions.CommandSyntaxException;
+import com.kasukusakura.brigadier.command.suggestion.Suggestions;
+import com.kasukusakura.brigadier.command.suggestion.SuggestionsBuilder;
+import com.kasukusakura.brigadier.command.tree.ArgumentCommandNode;
+import com.kasukusakura.brigadier.reader.AnyValueReader;
+import com.kasukusakura.brigadier.utils.FrontCodedDictionary;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+
+/**
+ * Accepts one of the values of a {@link FrontCodedDictionary}, for value sets too large to be literals.
+ * <p>
+ * Values are matched case-sensitive. When the suggestions are limited, the first values in dictionary order are suggested.
+ */
+public class DictionaryArgumentType<T> implements ArgumentType<T> {
+    public final FrontCodedDictionary dictionary;
+    private final Class<T> type;
+    private final IntFunction<? extends T> values;
+
+    /**
+     * @param values maps the index of a value in the dictionary to the parsed result
+     */
+    public DictionaryArgumentType(FrontCodedDictionary dictionary, Class<T> type, IntFunction<? extends T> values) {
+        this.dictionary = Objects.requireNonNull(dictionary, "dictionary");
+        this.type = type;
+        this.values = Objects.requireNonNull(values, "values");
+    }
+
+    public static DictionaryArgumentType<String> of(FrontCodedDictionary dictionary) {
+        return new DictionaryArgumentType<>(dictionary, String.class, dictionary::get);
+    }
+
+    @Override
+    public T parse(CommandDispatcher<?> dispatcher, AnyValueReader reader) throws CommandSyntaxException {
+        int cursorx = reader.getCursor();
+        Object any = reader.readAny();
+        int index = any == null ? -1 : dictionary.indexOf(any.toString());
+        if (index == -1) {
+            reader.setCursor(cursorx);
+            throw ArgumentCommandNode.incorrectArgument(reader, dispatcher, null);
+        }
+        return values.apply(index);
+    }
+
+    @Override
+    public Class<T> type() {
+        return type;
+    }
+
+    @Override
+    public <Src> CompletableFuture<Suggestions> listSuggestions(CommandContextBuilder<Src> context, SuggestionsBuilder builder) {
+        dictionary.forEachWithPrefix(builder.remainingAsString, value -> {
+            if (builder.accepts(value)) builder.suggest(value);
+            return !builder.isFull();
+        });
+        return builder.buildFuture();
+    }
+}
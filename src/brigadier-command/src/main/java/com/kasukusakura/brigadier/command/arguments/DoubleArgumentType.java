@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.arguments;
+
+import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
+import com.kasukusakura.brigadier.command.exceptions.CommandSyntaxException;
+import com.kasukusakura.brigadier.command.tree.ArgumentCommandNode;
+import com.kasukusakura.brigadier.reader.AnyValueReader;
+
+public class DoubleArgumentType implements PrimitiveArgumentType<Double> {
+    public static final DoubleArgumentType INSTANCE = new DoubleArgumentType(-Double.MAX_VALUE, Double.MAX_VALUE);
+
+    private final double min;
+    private final double max;
+
+    public DoubleArgumentType(double min, double max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    public long parseRaw(CommandContextBuilder<?> context, AnyValueReader reader) throws CommandSyntaxException {
+        int cursor = reader.getCursor();
+        double value;
+        try {
+            value = Double.parseDouble(PrimitiveArgumentType.readNumber(context, reader).toString());
+        } catch (NumberFormatException e) {
+            reader.setCursor(cursor);
+            throw ArgumentCommandNode.incorrectArgument(reader, context.getDispatcher(), e);
+        }
+        if (value < min || value > max) {
+            reader.setCursor(cursor);
+            throw context.getDispatcher().newCommandSyntaxException("Double must be in [" + min + ", " + max + "], found " + value);
+        }
+        return Double.doubleToRawLongBits(value);
+    }
+
+    @Override
+    public boolean isFloatingPoint() {
+        return true;
+    }
+
+    @Override
+    public Double box(long raw) {
+        return Double.longBitsToDouble(raw);
+    }
+
+    @Override
+    public Class<Double> type() {
+        return Double.class;
+    }
+}
@@ -12,20 +12,45 @@ import com.kasukusakura.brigadier.command.suggestion.Suggestions;
 import com.kasukusakura.brigadier.command.suggestion.SuggestionsBuilder;
 import com.kasukusakura.brigadier.command.tree.ArgumentCommandNode;
 import com.kasukusakura.brigadier.reader.AnyValueReader;
+import com.kasukusakura.brigadier.utils.BKTree;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
+/**
+ * Keys are indexed once at construction, sorted by their lowercase form.
+ * Suggestions are a binary searched range of the index, close matches are searched in a lazily built {@link BKTree}.
+ */
 public class EnumArgumentType<T> implements ArgumentType<T> {
     private final Function<String, T> mapper;
-    private final Iterable<String> values;
+    private final String[] keys;
+    private final String[] keysLowercase;
+    /**
+     * Values in key order, only set when keys are matched ignoring case
+     */
+    private final Object[] values;
+    /**
+     * Built on the first search, most types are never searched
+     */
+    private volatile BKTree fuzzyIndex;
 
     public EnumArgumentType(Function<String, T> mapper, Iterable<String> values) {
         this.mapper = mapper;
-        this.values = values;
+        this.values = null;
+
+        List<String> keys = new ArrayList<>();
+        for (String key : values) keys.add(key);
+        this.keys = keys.toArray(new String[0]);
+        this.keysLowercase = new String[this.keys.length];
+        sortKeys(this.keys, this.keysLowercase, null);
     }
 
     public EnumArgumentType(Map<String, T> values) {
@@ -33,12 +58,62 @@ public class EnumArgumentType<T> implements ArgumentType<T> {
     }
 
     public EnumArgumentType(Collection<T> values) {
+        this(mapping(values));
+    }
+
+    private EnumArgumentType(String[] keys, Object[] values) {
+        this.mapper = null;
+        this.keys = keys;
+        this.keysLowercase = new String[keys.length];
+        this.values = values;
+        sortKeys(keys, keysLowercase, values);
+    }
+
+    /**
+     * Matches the names of the constants ignoring case
+     */
+    public static <E extends Enum<E>> EnumArgumentType<E> ofEnum(Class<E> type) {
+        return ofEnum(type, Enum::name);
+    }
+
+    /**
+     * Matches the names of the constants ignoring case
+     */
+    public static <E extends Enum<E>> EnumArgumentType<E> ofEnum(Class<E> type, Function<? super E, String> naming) {
+        EnumMap<E, String> names = new EnumMap<>(type);
+        for (E constant : type.getEnumConstants()) {
+            names.put(constant, naming.apply(constant));
+        }
+        return new EnumArgumentType<>(names.values().toArray(new String[0]), names.keySet().toArray());
+    }
+
+    private static <T> Map<String, T> mapping(Collection<T> values) {
         HashMap<String, T> mapping = new HashMap<>();
         for (T value : values) {
             mapping.put(String.valueOf(value), value);
         }
-        this.mapper = mapping::get;
-        this.values = mapping.keySet();
+        return mapping;
+    }
+
+    private static void sortKeys(String[] keys, String[] keysLowercase, Object[] values) {
+        Integer[] order = new Integer[keys.length];
+        String[] lowercase = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = i;
+            lowercase[i] = keys[i].toLowerCase(Locale.ROOT);
+        }
+        Arrays.sort(order, (a, b) -> {
+            int result = lowercase[a].compareTo(lowercase[b]);
+            return result != 0 ? result : keys[a].compareTo(keys[b]);
+        });
+
+        String[] sortedKeys = keys.clone();
+        Object[] sortedValues = values == null ? null : values.clone();
+        for (int i = 0; i < order.length; i++) {
+            keys[i] = sortedKeys[order[i]];
+            keysLowercase[i] = lowercase[order[i]];
+            if (values != null) values[i] = sortedValues[order[i]];
+        }
     }
 
     @Override
@@ -50,7 +125,7 @@ public class EnumArgumentType<T> implements ArgumentType<T> {
             throw ArgumentCommandNode.incorrectArgument(reader, dispatcher, null);
         }
 
-        T value = mapper.apply(any.toString());
+        T value = lookup(any.toString());
         if (value == null) {
             reader.setCursor(cursorx);
             throw ArgumentCommandNode.incorrectArgument(reader, dispatcher, null);
@@ -58,10 +133,62 @@ public class EnumArgumentType<T> implements ArgumentType<T> {
         return value;
     }
 
+    @SuppressWarnings("unchecked")
+    private T lookup(String key) {
+        if (values == null) return mapper.apply(key);
+
+        int low = 0, high = keysLowercase.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int result = compareIgnoreCase(keysLowercase[mid], key);
+            if (result < 0) {
+                low = mid + 1;
+            } else if (result > 0) {
+                high = mid - 1;
+            } else {
+                return (T) values[mid];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compares a lowercase key with a key of any case, without allocating
+     */
+    private static int compareIgnoreCase(String lowercase, String key) {
+        int length = Math.min(lowercase.length(), key.length());
+        for (int i = 0; i < length; i++) {
+            char c1 = lowercase.charAt(i);
+            char c2 = Character.toLowerCase(key.charAt(i));
+            if (c1 != c2) return c1 - c2;
+        }
+        return lowercase.length() - key.length();
+    }
+
+    @Override
+    public List<String> closestMatches(String input, int maxDistance, int limit) {
+        return fuzzyIndex().search(input, maxDistance, limit);
+    }
+
+    private BKTree fuzzyIndex() {
+        BKTree index = fuzzyIndex;
+        if (index == null) {
+            fuzzyIndex = index = BKTree.of(Arrays.asList(keys));
+        }
+        return index;
+    }
+
     @Override
     public <Src> CompletableFuture<Suggestions> listSuggestions(CommandContextBuilder<Src> context, SuggestionsBuilder builder) {
-        for (String key : values) {
-            if (key.toLowerCase().startsWith(builder.remainingAsStringLowercase)) {
+        String prefix = builder.remainingAsStringLowercase;
+        int index = Arrays.binarySearch(keysLowercase, prefix);
+        if (index < 0) index = -index - 1;
+        // Equal lowercase keys are not ordered by the binary search
+        while (index > 0 && keysLowercase[index - 1].equals(prefix)) index--;
+
+        for (; index < keys.length && keysLowercase[index].startsWith(prefix); index++) {
+            String key = keys[index];
+            if (builder.accepts(key)) {
                 builder.suggest(key);
             }
         }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.arguments;
+
+import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
+import com.kasukusakura.brigadier.command.exceptions.CommandSyntaxException;
+import com.kasukusakura.brigadier.command.tree.ArgumentCommandNode;
+import com.kasukusakura.brigadier.reader.AnyValueReader;
+
+public class IntegerArgumentType implements PrimitiveArgumentType<Integer> {
+    public static final IntegerArgumentType INSTANCE = new IntegerArgumentType(Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+    private final int min;
+    private final int max;
+
+    public IntegerArgumentType(int min, int max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    public long parseRaw(CommandContextBuilder<?> context, AnyValueReader reader) throws CommandSyntaxException {
+        int cursor = reader.getCursor();
+        int value;
+        try {
+            value = Integer.parseInt(PrimitiveArgumentType.readNumber(context, reader).toString());
+        } catch (NumberFormatException e) {
+            reader.setCursor(cursor);
+            throw ArgumentCommandNode.incorrectArgument(reader, context.getDispatcher(), e);
+        }
+        if (value < min || value > max) {
+            reader.setCursor(cursor);
+            throw context.getDispatcher().newCommandSyntaxException("Integer must be in [" + min + ", " + max + "], found " + value);
+        }
+        return value;
+    }
+
+    @Override
+    public Integer box(long raw) {
+        return (int) raw;
+    }
+
+    @Override
+    public Class<Integer> type() {
+        return Integer.class;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.arguments;
+
+import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
+import com.kasukusakura.brigadier.command.exceptions.CommandSyntaxException;
+import com.kasukusakura.brigadier.command.tree.ArgumentCommandNode;
+import com.kasukusakura.brigadier.reader.AnyValueReader;
+
+public class LongArgumentType implements PrimitiveArgumentType<Long> {
+    public static final LongArgumentType INSTANCE = new LongArgumentType(Long.MIN_VALUE, Long.MAX_VALUE);
+
+    private final long min;
+    private final long max;
+
+    public LongArgumentType(long min, long max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    public long parseRaw(CommandContextBuilder<?> context, AnyValueReader reader) throws CommandSyntaxException {
+        int cursor = reader.getCursor();
+        long value;
+        try {
+            value = Long.parseLong(PrimitiveArgumentType.readNumber(context, reader).toString());
+        } catch (NumberFormatException e) {
+            reader.setCursor(cursor);
+            throw ArgumentCommandNode.incorrectArgument(reader, context.getDispatcher(), e);
+        }
+        if (value < min || value > max) {
+            reader.setCursor(cursor);
+            throw context.getDispatcher().newCommandSyntaxException("Long must be in [" + min + ", " + max + "], found " + value);
+        }
+        return value;
+    }
+
+    @Override
+    public Long box(long raw) {
+        return raw;
+    }
+
+    @Override
+    public Class<Long> type() {
+        return Long.class;
+    }
+}
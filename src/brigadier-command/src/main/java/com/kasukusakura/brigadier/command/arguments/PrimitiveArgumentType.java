@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.arguments;
+
+import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
+import com.kasukusakura.brigadier.command.exceptions.CommandSyntaxException;
+import com.kasukusakura.brigadier.reader.AnyValueReader;
+
+/**
+ * Argument type of primitive values. The parsed value is stored unboxed in the context
+ * and can be fetched by {@code getInt}, {@code getLong} or {@code getDouble} without boxing.
+ * <p>
+ * The raw value is the value itself for integral types
+ * and {@link Double#doubleToRawLongBits(double)} for floating point types.
+ */
+public interface PrimitiveArgumentType<T> extends ArgumentType<T> {
+    long parseRaw(CommandContextBuilder<?> context, AnyValueReader reader) throws CommandSyntaxException;
+
+    T box(long raw);
+
+    /**
+     * @return {@code true} if the raw value holds the bits of a double
+     */
+    default boolean isFloatingPoint() {
+        return false;
+    }
+
+    @Override
+    default T parse(CommandContextBuilder<?> context, AnyValueReader reader) throws CommandSyntaxException {
+        return box(parseRaw(context, reader));
+    }
+
+    static CharSequence readNumber(CommandContextBuilder<?> context, AnyValueReader reader) throws CommandSyntaxException {
+        Object value = reader.readAny();
+        if (value == null) {
+            throw context.getDispatcher().newCommandSyntaxException("Expected a number");
+        }
+        return reader.toCharSequence(value);
+    }
+}
@@ -10,6 +10,7 @@ import com.kasukusakura.brigadier.command.CommandPreprocessHandler;
 import com.kasukusakura.brigadier.command.RedirectModifier;
 import com.kasukusakura.brigadier.command.tree.CommandNode;
 import com.kasukusakura.brigadier.command.tree.CommandNodeBuilderBase;
+import com.kasukusakura.brigadier.command.tree.PermissionRequirement;
 import com.kasukusakura.brigadier.command.tree.RootCommandNode;
 
 import java.util.Objects;
@@ -64,6 +65,15 @@ public abstract class AbstractCommandNodeBuilder<Src, Thiz extends AbstractComma
         return getThis();
     }
 
+    /**
+     * Require the permission bits instead of a predicate
+     *
+     * @see PermissionRequirement
+     */
+    public Thiz permission(long bits) {
+        return requirement(PermissionRequirement.of(bits));
+    }
+
     public Thiz redirect(CommandNode<Src> redirect) {
         this.redirect = redirect;
         return getThis();
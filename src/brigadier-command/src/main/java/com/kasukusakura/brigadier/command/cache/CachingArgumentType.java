@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.cache;
+
+import com.kasukusakura.brigadier.command.CommandDispatcher;
+import com.kasukusakura.brigadier.command.arguments.ArgumentType;
+import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
+import com.kasukusakura.brigadier.command.exceptions.CommandSyntaxException;
+import com.kasukusakura.brigadier.command.suggestion.Suggestion;
+import com.kasukusakura.brigadier.command.suggestion.Suggestions;
+import com.kasukusakura.brigadier.command.suggestion.SuggestionsBuilder;
+import com.kasukusakura.brigadier.reader.AnyValueReader;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caches the suggestions of an argument type for a time to live.
+ * <p>
+ * Results are keyed by the typed prefix and the fingerprint of the source. A prefix not cached is answered
+ * by filtering the results of a cached shorter prefix, so the delegate must suggest every candidate
+ * starting with the prefix. Concurrent requests of the same key share one load.
+ * <p>
+ * Each instance has its own cache, wrap the type once per argument node.
+ * Cached suggestions are replayed at the start of the current argument.
+ */
+public class CachingArgumentType<T> implements ArgumentType<T> {
+    public final ArgumentType<T> delegate;
+    private final Function<Object, ?> fingerprint;
+    private final int capacity;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingArgumentType(ArgumentType<T> delegate, int capacity, long ttl, TimeUnit unit, Function<Object, ?> fingerprint) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        if (ttl <= 0) throw new IllegalArgumentException("ttl must be positive: " + ttl);
+
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.fingerprint = Objects.requireNonNull(fingerprint, "fingerprint");
+        this.capacity = capacity;
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    @Override
+    public T parse(CommandDispatcher<?> dispatcher, AnyValueReader reader) throws CommandSyntaxException {
+        return delegate.parse(dispatcher, reader);
+    }
+
+    @Override
+    public T parse(CommandContextBuilder<?> dispatcher, AnyValueReader reader) throws CommandSyntaxException {
+        return delegate.parse(dispatcher, reader);
+    }
+
+    @Override
+    public Class<T> type() {
+        return delegate.type();
+    }
+
+    @Override
+    public List<String> closestMatches(String input, int maxDistance, int limit) {
+        return delegate.closestMatches(input, maxDistance, limit);
+    }
+
+    @Override
+    public <Src> CompletableFuture<Suggestions> listSuggestions(CommandContextBuilder<Src> context, SuggestionsBuilder builder) {
+        Object sourceKey = fingerprint.apply(context.getSource());
+        String prefix = builder.remainingAsStringLowercase;
+        Entry entry;
+        boolean load = false;
+
+        synchronized (this) {
+            entry = lookup(sourceKey, prefix, System.nanoTime());
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(new Key(sourceKey, prefix), entry);
+                evict();
+                load = true;
+            }
+        }
+
+        if (load) {
+            misses.increment();
+            load(entry, sourceKey, prefix, context, builder);
+        } else {
+            hits.increment();
+        }
+        return entry.future.thenApply(cached -> {
+            for (CachedSuggestion suggestion : cached) {
+                if (suggestion.textLowercase.startsWith(prefix)) {
+                    builder.suggest(suggestion.text, suggestion.tooltip);
+                }
+            }
+            return builder.build();
+        });
+    }
+
+    /**
+     * @return the entry of the prefix, or a loaded entry of a shorter prefix
+     */
+    private Entry lookup(Object sourceKey, String prefix, long now) {
+        for (int length = prefix.length(); length >= 0; length--) {
+            Key key = new Key(sourceKey, prefix.substring(0, length));
+            Entry entry = entries.get(key);
+            if (entry == null) continue;
+
+            if (!entry.future.isDone()) {
+                if (length == prefix.length()) return entry; // Coalesce with the running load
+                continue;
+            }
+            if (now - entry.loadedAt > ttlNanos) {
+                entries.remove(key);
+                continue;
+            }
+            return entry;
+        }
+        return null;
+    }
+
+    private <Src> void load(Entry entry, Object sourceKey, String prefix, CommandContextBuilder<Src> context, SuggestionsBuilder builder) {
+        // Unlimited, the results must stay complete for longer prefixes
+        SuggestionsBuilder unlimited = new SuggestionsBuilder(builder.remaining, builder.remainingAsString, prefix, builder.start);
+        CompletableFuture<Suggestions> loading;
+        try {
+            loading = delegate.listSuggestions(context, unlimited);
+        } catch (Throwable throwable) {
+            loading = new CompletableFuture<>();
+            loading.completeExceptionally(throwable);
+        }
+
+        loading.whenComplete((suggestions, error) -> {
+            if (error != null) {
+                synchronized (this) {
+                    entries.remove(new Key(sourceKey, prefix), entry);
+                }
+                entry.future.completeExceptionally(error);
+                return;
+            }
+
+            List<CachedSuggestion> cached = new ArrayList<>(suggestions.suggestions.size());
+            for (Suggestion suggestion : suggestions.suggestions) {
+                cached.add(new CachedSuggestion(suggestion.text, suggestion.tooltip));
+            }
+            entry.loadedAt = System.nanoTime();
+            entry.future.complete(cached);
+        });
+    }
+
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    private static final class Key {
+        final Object source;
+        final String prefix;
+
+        Key(Object source, String prefix) {
+            this.source = source;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key key = (Key) o;
+            return Objects.equals(source, key.source) && prefix.equals(key.prefix);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(source) * 31 + prefix.hashCode();
+        }
+    }
+
+    private static final class Entry {
+        final CompletableFuture<List<CachedSuggestion>> future = new CompletableFuture<>();
+        volatile long loadedAt;
+    }
+
+    private static final class CachedSuggestion {
+        final String text;
+        final String textLowercase;
+        final String tooltip;
+
+        CachedSuggestion(String text, String tooltip) {
+            this.text = text;
+            this.textLowercase = text.toLowerCase(Locale.ROOT);
+            this.tooltip = tooltip;
+        }
+    }
+}
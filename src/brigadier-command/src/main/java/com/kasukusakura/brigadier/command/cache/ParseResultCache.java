@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.cache;
+
+import com.kasukusakura.brigadier.command.ParsedResults;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded segmented LRU cache of successfully parsed commands.
+ * <p>
+ * Results are keyed by the input and the fingerprint of the source. The fingerprint must
+ * cover everything the requirements and argument types of the tree read from the source,
+ * e.g. the permission level. Two sources with the same fingerprint share the parsed results.
+ * <p>
+ * Keys are spread over stripes locked independently, so concurrent parses of different inputs rarely contend.
+ * The cache is dropped when a newer version of the tree is passed in, results of older versions are ignored.
+ *
+ * @see com.kasukusakura.brigadier.command.CommandDispatcher#parseCache
+ */
+public class ParseResultCache<Src> {
+    private final Function<? super Src, ?> fingerprint;
+    private final Stripe<Src>[] stripes;
+    private final AtomicLong treeVersion = new AtomicLong(-1);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public ParseResultCache(int capacity, Function<? super Src, ?> fingerprint) {
+        if (capacity < 2) throw new IllegalArgumentException("capacity must be at least 2: " + capacity);
+
+        this.fingerprint = Objects.requireNonNull(fingerprint, "fingerprint");
+        // Each stripe keeps at least 8 entries
+        int count = Math.min(
+                Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) * 2,
+                Integer.highestOneBit(Math.max(1, capacity / 8))
+        );
+        this.stripes = (Stripe<Src>[]) new Stripe<?>[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>(capacity / count + (i < capacity % count ? 1 : 0));
+        }
+    }
+
+    private Stripe<Src> stripe(Key key) {
+        int hash = key.hash ^ (key.hash >>> 16);
+        return stripes[hash & (stripes.length - 1)];
+    }
+
+    /**
+     * @return the cached results rebound to the source, or {@code null} if not cached
+     */
+    public ParsedResults<Src> get(String input, Src source, long treeVersion) {
+        Key key = new Key(input, fingerprint.apply(source));
+        ParsedResults<Src> cached = null;
+
+        if (advanceTreeVersion(treeVersion)) {
+            cached = stripe(key).get(key, treeVersion, this.treeVersion);
+        }
+
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return new ParsedResults<>(cached.context.copyFor(source), cached.reader.copy(), null);
+    }
+
+    public void put(String input, Src source, long treeVersion, ParsedResults<Src> results) {
+        if (!advanceTreeVersion(treeVersion)) return;
+
+        Key key = new Key(input, fingerprint.apply(source));
+        ParsedResults<Src> stored = new ParsedResults<>(results.context.copy(), results.reader.copy(), null);
+        stripe(key).put(key, stored, treeVersion, this.treeVersion);
+    }
+
+    /**
+     * @return {@code false} if the version is older than the cached one
+     */
+    private boolean advanceTreeVersion(long version) {
+        while (true) {
+            long current = treeVersion.get();
+            if (version == current) return true;
+            if (version < current) return false;
+            if (treeVersion.compareAndSet(current, version)) {
+                clear();
+                return true;
+            }
+        }
+    }
+
+    public void clear() {
+        for (Stripe<Src> stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe<Src> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    private static final class Stripe<Src> {
+        private final int probationCapacity;
+        private final int protectedCapacity;
+        private final LinkedHashMap<Key, ParsedResults<Src>> probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<Key, ParsedResults<Src>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+        Stripe(int capacity) {
+            this.probationCapacity = Math.max(1, capacity / 5);
+            this.protectedCapacity = Math.max(1, capacity - probationCapacity);
+        }
+
+        // The version is checked again under the lock, a concurrent advance clears this stripe after it
+        synchronized ParsedResults<Src> get(Key key, long version, AtomicLong current) {
+            if (version != current.get()) return null;
+
+            ParsedResults<Src> cached = protectedSegment.get(key);
+            if (cached == null) {
+                cached = probation.remove(key);
+                if (cached != null) promote(key, cached);
+            }
+            return cached;
+        }
+
+        synchronized void put(Key key, ParsedResults<Src> stored, long version, AtomicLong current) {
+            if (version != current.get()) return;
+
+            if (protectedSegment.containsKey(key)) {
+                protectedSegment.put(key, stored);
+                return;
+            }
+            probation.put(key, stored);
+            evict(probation, probationCapacity);
+        }
+
+        private void promote(Key key, ParsedResults<Src> results) {
+            protectedSegment.put(key, results);
+            if (protectedSegment.size() > protectedCapacity) {
+                // Demote the least recently used one back to probation
+                Iterator<Map.Entry<Key, ParsedResults<Src>>> iterator = protectedSegment.entrySet().iterator();
+                Map.Entry<Key, ParsedResults<Src>> eldest = iterator.next();
+                iterator.remove();
+                probation.put(eldest.getKey(), eldest.getValue());
+                evict(probation, probationCapacity);
+            }
+        }
+
+        private static void evict(LinkedHashMap<?, ?> segment, int capacity) {
+            Iterator<?> iterator = segment.values().iterator();
+            while (segment.size() > capacity) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+
+        synchronized void clear() {
+            probation.clear();
+            protectedSegment.clear();
+        }
+
+        synchronized int size() {
+            return probation.size() + protectedSegment.size();
+        }
+    }
+
+    private static final class Key {
+        final String input;
+        final Object fingerprint;
+        final int hash;
+
+        Key(String input, Object fingerprint) {
+            this.input = input;
+            this.fingerprint = fingerprint;
+            this.hash = input.hashCode() * 31 + Objects.hashCode(fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return hash == that.hash && input.equals(that.input) && Objects.equals(fingerprint, that.fingerprint);
+        }
+    }
+}
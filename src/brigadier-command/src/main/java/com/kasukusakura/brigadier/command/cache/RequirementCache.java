@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.cache;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded LRU cache of requirement results, keyed by the fingerprint of the source and the requirement instance.
+ * <p>
+ * All results of a source expire together after the time to live, so a change of permissions
+ * is visible after at most one TTL. Call {@link #invalidate(Object)} to make it visible immediately.
+ *
+ * @see com.kasukusakura.brigadier.command.CommandDispatcher#requirementCache
+ */
+public class RequirementCache<Src> {
+    private final Function<? super Src, ?> fingerprint;
+    private final int capacity;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public RequirementCache(int capacity, long ttl, TimeUnit unit, Function<? super Src, ?> fingerprint) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        if (ttl <= 0) throw new IllegalArgumentException("ttl must be positive: " + ttl);
+
+        this.fingerprint = Objects.requireNonNull(fingerprint, "fingerprint");
+        this.capacity = capacity;
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    public boolean test(Src source, Predicate<? super Src> requirement) {
+        Object key = fingerprint.apply(source);
+        long now = System.nanoTime();
+        Entry entry;
+
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null || now - entry.created > ttlNanos) {
+                entry = new Entry(now);
+                entries.put(key, entry);
+                evict();
+            }
+        }
+
+        synchronized (entry) {
+            Boolean result = entry.results.get(requirement);
+            if (result != null) return result;
+        }
+
+        // Tested outside of the lock, a concurrent miss may test the same requirement again
+        boolean result = requirement.test(source);
+        synchronized (entry) {
+            entry.results.put(requirement, result);
+        }
+        return result;
+    }
+
+    public synchronized void invalidate(Src source) {
+        entries.remove(fingerprint.apply(source));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+        final long created;
+        final Map<Predicate<?>, Boolean> results = new IdentityHashMap<>();
+
+        Entry(long created) {
+            this.created = created;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.cache;
+
+import com.kasukusakura.brigadier.command.PermissionMaskSource;
+import com.kasukusakura.brigadier.command.tree.CommandNode;
+import com.kasukusakura.brigadier.command.tree.PermissionRequirement;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Results of node requirements for one source during one operation, e.g. a parse or a help rendering.
+ * Each distinct requirement instance is tested at most once.
+ * <p>
+ * Not thread-safe.
+ */
+public final class RequirementMemo<Src> {
+    private final Src source;
+    private final long permissionMask;
+    private final RequirementCache<Src> shared;
+    private Map<Predicate<? super Src>, Boolean> results;
+
+    /**
+     * @param shared results shared between operations, {@code null} to test the requirements directly
+     */
+    public RequirementMemo(Src source, RequirementCache<Src> shared) {
+        this(source, source instanceof PermissionMaskSource ? ((PermissionMaskSource) source).getPermissionMask() : 0L, shared);
+    }
+
+    public RequirementMemo(Src source, long permissionMask, RequirementCache<Src> shared) {
+        this.source = source;
+        this.permissionMask = permissionMask;
+        this.shared = shared;
+    }
+
+    public Src getSource() {
+        return source;
+    }
+
+    public long getPermissionMask() {
+        return permissionMask;
+    }
+
+    /**
+     * Test the requirement of the node, and whether the permission mask can reach any executable node through it
+     */
+    public boolean test(CommandNode<Src> node) {
+        long bits = node.getPermissionBits();
+        if ((permissionMask & bits) != bits) return false;
+
+        return test(node.getRequirement());
+    }
+
+    public boolean test(Predicate<? super Src> requirement) {
+        if (requirement == CommandNode.allowAll()) return true;
+        if (requirement instanceof PermissionRequirement) {
+            return ((PermissionRequirement<?>) requirement).test(permissionMask);
+        }
+
+        Map<Predicate<? super Src>, Boolean> results = this.results;
+        if (results == null) {
+            this.results = results = new IdentityHashMap<>();
+        } else {
+            Boolean result = results.get(requirement);
+            if (result != null) return result;
+        }
+
+        boolean result = shared == null ? requirement.test(source) : shared.test(source, requirement);
+        results.put(requirement, result);
+        return result;
+    }
+}
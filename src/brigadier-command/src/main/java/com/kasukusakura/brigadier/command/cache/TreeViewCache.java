@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.cache;
+
+import com.kasukusakura.brigadier.command.CommandDispatcher;
+import com.kasukusakura.brigadier.command.tree.RootCommandNode;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of filtered tree views, one per capability profile.
+ * <p>
+ * The profile must cover everything the requirements of the tree read from the source,
+ * the view of a profile is built with the requirements of the first source seen with it.
+ * <p>
+ * The views are dropped when the tree of the dispatcher changes.
+ *
+ * @see RootCommandNode#filteredView(RequirementMemo)
+ * @see CommandDispatcher#treeViews
+ */
+public class TreeViewCache<Src> {
+    private final Function<? super Src, ?> profile;
+    private final int capacity;
+
+    private final LinkedHashMap<Object, RootCommandNode<Src>> views = new LinkedHashMap<>(16, 0.75f, true);
+    private long treeVersion = -1;
+
+    public TreeViewCache(int capacity, Function<? super Src, ?> profile) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+
+        this.profile = Objects.requireNonNull(profile, "profile");
+        this.capacity = capacity;
+    }
+
+    public RootCommandNode<Src> view(CommandDispatcher<Src> dispatcher, Src source) {
+        Object key = profile.apply(source);
+        long version = dispatcher.root.treeVersion();
+
+        synchronized (this) {
+            checkTreeVersion(version);
+            RootCommandNode<Src> view = views.get(key);
+            if (view != null) return view;
+        }
+
+        // Built outside of the lock, concurrent misses of the same profile may build it twice
+        RootCommandNode<Src> view = dispatcher.root.filteredView(dispatcher.newRequirementMemo(source));
+        view.freeze();
+
+        synchronized (this) {
+            if (dispatcher.root.treeVersion() != version) return view; // Not cached, the tree changed while building
+
+            checkTreeVersion(version);
+            RootCommandNode<Src> existing = views.putIfAbsent(key, view);
+            if (existing != null) return existing;
+
+            Iterator<RootCommandNode<Src>> iterator = views.values().iterator();
+            while (views.size() > capacity && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return view;
+    }
+
+    public synchronized void clear() {
+        views.clear();
+    }
+
+    public synchronized int size() {
+        return views.size();
+    }
+
+    private void checkTreeVersion(long version) {
+        if (treeVersion != version) {
+            views.clear();
+            treeVersion = version;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.context;
+
+import com.kasukusakura.brigadier.command.arguments.PrimitiveArgumentType;
+import com.kasukusakura.brigadier.command.tree.ArgumentCommandNode;
+
+final class ArgumentValue extends MetadataValue {
+    final ArgumentCommandNode<?, ?> node;
+    final long raw;
+    final boolean primitive;
+    /**
+     * The raw value holds the bits of a double
+     */
+    final boolean floating;
+
+    ArgumentValue(ArgumentCommandNode<?, ?> node, Object value) {
+        super(node.getName(), node.getType().type(), value);
+        this.node = node;
+        this.raw = 0;
+        this.primitive = false;
+        this.floating = false;
+    }
+
+    ArgumentValue(ArgumentCommandNode<?, ?> node, long raw) {
+        super(node.getName(), node.getType().type(), null);
+        this.node = node;
+        this.raw = raw;
+        this.primitive = true;
+        this.floating = ((PrimitiveArgumentType<?>) node.getType()).isFloatingPoint();
+    }
+
+    long longValue() {
+        return floating ? (long) Double.longBitsToDouble(raw) : raw;
+    }
+
+    double doubleValue() {
+        return floating ? Double.longBitsToDouble(raw) : raw;
+    }
+
+    Object boxed() {
+        if (primitive) return ((PrimitiveArgumentType<?>) node.getType()).box(raw);
+        return value;
+    }
+
+    static Object boxed(MetadataValue value) {
+        if (value instanceof ArgumentValue) return ((ArgumentValue) value).boxed();
+        return value.value;
+    }
+}
@@ -9,6 +9,7 @@ import com.kasukusakura.brigadier.command.CommandDispatcher;
 import com.kasukusakura.brigadier.command.CommandHandler;
 import com.kasukusakura.brigadier.command.ParsedResults;
 import com.kasukusakura.brigadier.command.RedirectModifier;
+import com.kasukusakura.brigadier.command.tree.ArgumentCommandNode;
 
 import java.util.List;
 
@@ -19,14 +20,39 @@ public interface CommandContext<Src> {
 
     CommandContext<Src> getChild();
 
+    /**
+     * @return an unmodifiable view shared with the copies of this context, add nodes with
+     * {@link CommandContextBuilder#withNode}
+     */
     List<ParsedCommandNode<Src>> getNodes();
 
+    /**
+     * @return an unmodifiable view shared with the copies of this context, add values with
+     * {@link CommandContextBuilder#withMetadata}
+     */
     List<MetadataValue> getAllMetadata();
 
     <T> T getMetadata(String name, Class<T> type);
 
     <T> T getArgument(String name, Class<T> type);
 
+    /**
+     * Fetch the argument parsed by the node. Uses the slot of the node if available.
+     */
+    <T> T getArgument(ArgumentCommandNode<Src, T> node);
+
+    int getInt(ArgumentCommandNode<Src, Integer> node);
+
+    long getLong(ArgumentCommandNode<Src, Long> node);
+
+    double getDouble(ArgumentCommandNode<Src, Double> node);
+
+    int getInt(String name);
+
+    long getLong(String name);
+
+    double getDouble(String name);
+
     CommandHandler<Src> getCommand();
 
     StringRange getRange();
@@ -37,6 +63,14 @@ public interface CommandContext<Src> {
 
     RedirectModifier<Src> getRedirectModifier();
 
+    /**
+     * @return {@code true} if the last node forks, failures of the redirected contexts don't abort each other
+     */
+    default boolean isForked() {
+        List<ParsedCommandNode<Src>> nodes = getNodes();
+        return !nodes.isEmpty() && nodes.get(nodes.size() - 1).node.isFork();
+    }
+
     CommandContext<Src> copyFor(Src source);
 
     CommandDispatcher<Src> getDispatcher();
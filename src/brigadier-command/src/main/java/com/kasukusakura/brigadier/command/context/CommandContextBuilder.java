@@ -8,6 +8,7 @@ package com.kasukusakura.brigadier.command.context;
 import com.kasukusakura.brigadier.command.CommandDispatcher;
 import com.kasukusakura.brigadier.command.CommandHandler;
 import com.kasukusakura.brigadier.command.ParsedResults;
+import com.kasukusakura.brigadier.command.tree.ArgumentCommandNode;
 import com.kasukusakura.brigadier.command.tree.CommandNode;
 
 public interface CommandContextBuilder<Src> extends CommandContext<Src> {
@@ -34,6 +35,13 @@ public interface CommandContextBuilder<Src> extends CommandContext<Src> {
 
     CommandContextBuilder<Src> withArgument(String name, Class<?> type, Object value);
 
+    CommandContextBuilder<Src> withArgument(ArgumentCommandNode<Src, ?> node, Object value);
+
+    /**
+     * @see com.kasukusakura.brigadier.command.arguments.PrimitiveArgumentType
+     */
+    CommandContextBuilder<Src> withRawArgument(ArgumentCommandNode<Src, ?> node, long raw);
+
     SuggestionContext<Src> findSuggestionContext(int cursor);
 
     boolean inheritCommandHandlerForChild();
@@ -52,7 +60,7 @@ public interface CommandContextBuilder<Src> extends CommandContext<Src> {
 
     default CommandContextBuilder<Src> newBuilderForChild(CommandDispatcher<Src> dispatcher, Src source, CommandNode<Src> redirect, int cursor) {
         CommandContextBuilderImpl<Src> impl = (CommandContextBuilderImpl<Src>) newBuilder(dispatcher, source, redirect, cursor);
-        impl.getAllMetadata().addAll(this.getAllMetadata());
+        impl.inheritMetadata(this.getAllMetadata());
         return impl;
     }
 
@@ -10,9 +10,9 @@ import com.kasukusakura.brigadier.command.CommandHandler;
 import com.kasukusakura.brigadier.command.ParsedResults;
 import com.kasukusakura.brigadier.command.RedirectModifier;
 import com.kasukusakura.brigadier.command.suggestion.SuggestionInterpreter;
+import com.kasukusakura.brigadier.command.tree.ArgumentCommandNode;
 import com.kasukusakura.brigadier.command.tree.CommandNode;
 
-import java.util.ArrayList;
 import java.util.List;
 
 class CommandContextBuilderImpl<Src> implements CommandContextBuilder<Src> {
@@ -28,9 +28,9 @@ class CommandContextBuilderImpl<Src> implements CommandContextBuilder<Src> {
     private boolean doExecuteChild = true;
     private ParsedResults<Src> results;
 
-    private final List<ParsedCommandNode<Src>> nodes = new ArrayList<>();
-    private final List<MetadataValue> metadataValues = new ArrayList<>();
-    private final List<MetadataValue> arguments = new ArrayList<>();
+    private PersistentList<ParsedCommandNode<Src>> nodes = PersistentList.empty();
+    private PersistentList<MetadataValue> metadataValues = PersistentList.empty();
+    private PersistentList<MetadataValue> arguments = PersistentList.empty();
 
     CommandContextBuilderImpl(
             CommandDispatcher<Src> dispatcher,
@@ -71,14 +71,112 @@ class CommandContextBuilderImpl<Src> implements CommandContextBuilder<Src> {
     }
 
     @SuppressWarnings("unchecked")
-    private static <T> T get(List<MetadataValue> values, String name, Class<T> type) {
-        for (MetadataValue value : values) {
-            if (name != null && name.equals(value.name)) return (T) value.value;
-            if (type != null && type.equals(value.type)) return (T) value.value;
+    private static <T> T get(PersistentList<MetadataValue> values, String name, Class<T> type) {
+        // The oldest matched value wins
+        for (int i = 0, size = values.size(); i < size; i++) {
+            MetadataValue value = values.get(i);
+            if ((name != null && name.equals(value.name)) || (type != null && type.equals(value.type))) {
+                return (T) ArgumentValue.boxed(value);
+            }
+        }
+        return null;
+    }
+
+    private ArgumentValue findArgument(ArgumentCommandNode<Src, ?> node) {
+        PersistentList<MetadataValue> arguments = this.arguments;
+        int slot = node.getSlot();
+        if (slot >= 0 && slot < arguments.size()) {
+            MetadataValue value = arguments.get(slot);
+            if (value instanceof ArgumentValue && ((ArgumentValue) value).node == node) {
+                return (ArgumentValue) value;
+            }
+        }
+
+        for (int i = 0, size = arguments.size(); i < size; i++) {
+            MetadataValue value = arguments.get(i);
+            if (value instanceof ArgumentValue && ((ArgumentValue) value).node == node) {
+                return (ArgumentValue) value;
+            }
         }
         return null;
     }
 
+    private MetadataValue requireArgument(ArgumentCommandNode<Src, ?> node) {
+        MetadataValue value = findArgument(node);
+        if (value == null) throw new IllegalArgumentException("No argument parsed for node " + node.getName());
+        return value;
+    }
+
+    private MetadataValue requireArgument(String name) {
+        PersistentList<MetadataValue> arguments = this.arguments;
+        for (int i = 0, size = arguments.size(); i < size; i++) {
+            MetadataValue value = arguments.get(i);
+            if (name.equals(value.name)) return value;
+        }
+        throw new IllegalArgumentException("No argument named " + name);
+    }
+
+    private static long rawIntegral(MetadataValue value) {
+        if (value instanceof ArgumentValue && ((ArgumentValue) value).primitive) {
+            return ((ArgumentValue) value).longValue();
+        }
+        return ((Number) value.value).longValue();
+    }
+
+    private static double rawDouble(MetadataValue value) {
+        if (value instanceof ArgumentValue && ((ArgumentValue) value).primitive) {
+            return ((ArgumentValue) value).doubleValue();
+        }
+        return ((Number) value.value).doubleValue();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getArgument(ArgumentCommandNode<Src, T> node) {
+        ArgumentValue value = findArgument(node);
+        return value == null ? null : (T) value.boxed();
+    }
+
+    @Override
+    public int getInt(ArgumentCommandNode<Src, Integer> node) {
+        return (int) rawIntegral(requireArgument(node));
+    }
+
+    @Override
+    public long getLong(ArgumentCommandNode<Src, Long> node) {
+        return rawIntegral(requireArgument(node));
+    }
+
+    @Override
+    public double getDouble(ArgumentCommandNode<Src, Double> node) {
+        return rawDouble(requireArgument(node));
+    }
+
+    @Override
+    public int getInt(String name) {
+        return (int) rawIntegral(requireArgument(name));
+    }
+
+    @Override
+    public long getLong(String name) {
+        return rawIntegral(requireArgument(name));
+    }
+
+    @Override
+    public double getDouble(String name) {
+        return rawDouble(requireArgument(name));
+    }
+
+    void inheritMetadata(List<MetadataValue> values) {
+        if (metadataValues.isEmpty() && values instanceof PersistentList) {
+            metadataValues = (PersistentList<MetadataValue>) values;
+            return;
+        }
+        for (MetadataValue value : values) {
+            metadataValues = metadataValues.append(value);
+        }
+    }
+
     @Override
     public <T> T getMetadata(String name, Class<T> type) {
         return get(metadataValues, name, type);
@@ -93,10 +191,10 @@ class CommandContextBuilderImpl<Src> implements CommandContextBuilder<Src> {
     public CommandContextBuilderImpl<Src> copy() {
         CommandContextBuilderImpl<Src> newContext = new CommandContextBuilderImpl<>(dispatcher, source, root, 0);
         newContext.range = range;
-        newContext.nodes.addAll(nodes);
+        newContext.nodes = nodes;
         newContext.child = child;
-        newContext.metadataValues.addAll(metadataValues);
-        newContext.arguments.addAll(arguments);
+        newContext.metadataValues = metadataValues;
+        newContext.arguments = arguments;
         newContext.commandHandler = commandHandler;
         newContext.inheritCommandHandlerForChild = inheritCommandHandlerForChild;
         newContext.doExecuteChild = doExecuteChild;
@@ -122,7 +220,7 @@ class CommandContextBuilderImpl<Src> implements CommandContextBuilder<Src> {
 
     @Override
     public CommandContextBuilder<Src> withNode(CommandNode<Src> node, StringRange range) {
-        this.nodes.add(new ParsedCommandNode<>(node, range));
+        this.nodes = nodes.append(new ParsedCommandNode<>(node, range));
         this.range = StringRange.encompassing(this.range, range);
         this.lastNode = node;
         return this;
@@ -142,13 +240,25 @@ class CommandContextBuilderImpl<Src> implements CommandContextBuilder<Src> {
 
     @Override
     public CommandContextBuilder<Src> withMetadata(String name, Class<?> type, Object metadata) {
-        metadataValues.add(new MetadataValue(name, type, metadata));
+        metadataValues = metadataValues.append(new MetadataValue(name, type, metadata));
         return this;
     }
 
     @Override
     public CommandContextBuilder<Src> withArgument(String name, Class<?> type, Object value) {
-        arguments.add(new MetadataValue(name, type, value));
+        arguments = arguments.append(new MetadataValue(name, type, value));
+        return this;
+    }
+
+    @Override
+    public CommandContextBuilder<Src> withArgument(ArgumentCommandNode<Src, ?> node, Object value) {
+        arguments = arguments.append(new ArgumentValue(node, value));
+        return this;
+    }
+
+    @Override
+    public CommandContextBuilder<Src> withRawArgument(ArgumentCommandNode<Src, ?> node, long raw) {
+        arguments = arguments.append(new ArgumentValue(node, raw));
         return this;
     }
 
@@ -182,7 +292,7 @@ class CommandContextBuilderImpl<Src> implements CommandContextBuilder<Src> {
                 return new SuggestionContext<>(root, range.start);
             }
 
-            ParsedCommandNode<Src> last = nodes.get(nodes.size() - 1);
+            ParsedCommandNode<Src> last = nodes.last();
             if (last.node instanceof SuggestionInterpreter) {
                 return ((SuggestionInterpreter) last.node).findSuggestionContext(last);
             }
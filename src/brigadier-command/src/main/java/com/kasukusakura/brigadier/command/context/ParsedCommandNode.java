@@ -8,6 +8,12 @@ package com.kasukusakura.brigadier.command.context;
 import com.kasukusakura.brigadier.command.tree.CommandNode;
 
 public class ParsedCommandNode<Src> {
+    /**
+     * The matched node, a copy when the source parsed a filtered tree view.
+     * Compare {@link #getOrigin()} against registered nodes.
+     *
+     * @see com.kasukusakura.brigadier.command.CommandDispatcher#treeViews
+     */
     public final CommandNode<Src> node;
     public final StringRange range;
 
@@ -15,4 +21,12 @@ public class ParsedCommandNode<Src> {
         this.node = node;
         this.range = range;
     }
+
+    /**
+     * @return the registered node matched, whether or not a tree view was parsed
+     * @see CommandNode#getOrigin()
+     */
+    public CommandNode<Src> getOrigin() {
+        return node.getOrigin();
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.context;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable append-only list sharing its backing array with the list it was appended to.
+ * <p>
+ * The first append to a list claims the next free cell of the shared array, later appends to the same list
+ * copy the array. Appending never affects other lists sharing the same prefix, and random access is
+ * a plain array load.
+ */
+final class PersistentList<E> extends AbstractList<E> implements RandomAccess {
+    @SuppressWarnings("rawtypes")
+    private static final PersistentList EMPTY = new PersistentList<>(new Object[0], 0, new AtomicInteger());
+
+    private final Object[] elements;
+    private final int size;
+    /**
+     * Count of the cells of {@link #elements} claimed by the lists sharing it
+     */
+    private final AtomicInteger claimed;
+
+    private PersistentList(Object[] elements, int size, AtomicInteger claimed) {
+        this.elements = elements;
+        this.size = size;
+        this.claimed = claimed;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> PersistentList<E> empty() {
+        return (PersistentList<E>) EMPTY;
+    }
+
+    PersistentList<E> append(E value) {
+        if (size < elements.length && claimed.compareAndSet(size, size + 1)) {
+            elements[size] = value;
+            return new PersistentList<>(elements, size + 1, claimed);
+        }
+
+        Object[] grown = new Object[Math.max(4, size * 2)];
+        System.arraycopy(elements, 0, grown, 0, size);
+        grown[size] = value;
+        return new PersistentList<>(grown, size + 1, new AtomicInteger(size + 1));
+    }
+
+    /**
+     * @return the newest element, or {@code null} if empty
+     */
+    E last() {
+        return size == 0 ? null : get(size - 1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (E) elements[index];
+    }
+}
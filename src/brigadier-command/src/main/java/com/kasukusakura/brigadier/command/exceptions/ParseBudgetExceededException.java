@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.exceptions;
+
+import com.kasukusakura.brigadier.command.ParseBudget;
+
+public class ParseBudgetExceededException extends CommandSyntaxException {
+    public final ParseBudget.Limit limit;
+    public final long used;
+
+    public ParseBudgetExceededException(ParseBudget.Limit limit, long used, String message, boolean writableStackTrace) {
+        super(message, null, true, writableStackTrace);
+        this.limit = limit;
+        this.used = used;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.suggestion;
+
+import com.kasukusakura.brigadier.command.context.StringRange;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Changes between two results of a suggestion session
+ */
+public class SuggestionDelta {
+    /**
+     * Range of the new suggestions
+     */
+    public final StringRange range;
+    public final List<Suggestion> added;
+    public final List<Suggestion> removed;
+    /**
+     * {@code true} if the new suggestions were filtered from the previous ones without asking the providers
+     */
+    public final boolean filtered;
+
+    public SuggestionDelta(StringRange range, List<Suggestion> added, List<Suggestion> removed, boolean filtered) {
+        this.range = range;
+        this.added = added;
+        this.removed = removed;
+        this.filtered = filtered;
+    }
+
+    public static SuggestionDelta between(Suggestions previous, Suggestions current, boolean filtered) {
+        Set<Suggestion> previousSet = new HashSet<>(previous.suggestions);
+        Set<Suggestion> currentSet = new HashSet<>(current.suggestions);
+
+        List<Suggestion> added = new ArrayList<>();
+        for (Suggestion suggestion : current.suggestions) {
+            if (!previousSet.contains(suggestion)) added.add(suggestion);
+        }
+        List<Suggestion> removed = new ArrayList<>();
+        for (Suggestion suggestion : previous.suggestions) {
+            if (!currentSet.contains(suggestion)) removed.add(suggestion);
+        }
+        return new SuggestionDelta(
+                current.range,
+                added.isEmpty() ? Collections.emptyList() : added,
+                removed.isEmpty() ? Collections.emptyList() : removed,
+                filtered
+        );
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.suggestion;
+
+import com.kasukusakura.brigadier.utils.CountMinSketch;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ranks suggestions by how often they were selected or executed, most frequent first.
+ * Frequencies are counted in a decaying {@link CountMinSketch}, the memory is fixed whatever the count of texts seen.
+ */
+public class SuggestionRanking {
+    private final CountMinSketch counts;
+    /**
+     * Weight of a selected suggestion, an executed token counts {@code 1}
+     */
+    public volatile int selectionWeight = 2;
+
+    public SuggestionRanking() {
+        this(4096, 4, 1 << 16);
+    }
+
+    /**
+     * @see CountMinSketch#CountMinSketch(int, int, int)
+     */
+    public SuggestionRanking(int width, int depth, int sampleSize) {
+        this.counts = new CountMinSketch(width, depth, sampleSize);
+    }
+
+    public void recordSelection(String text) {
+        counts.add(text, selectionWeight);
+    }
+
+    public void recordExecution(String token) {
+        counts.add(token);
+    }
+
+    public int frequency(String text) {
+        return counts.estimate(text);
+    }
+
+    /**
+     * An order for one completion request. Frequencies are read once per text,
+     * so the order stays consistent while the counts change.
+     */
+    public Comparator<Suggestion> newOrder() {
+        Map<String, Integer> frequencies = new ConcurrentHashMap<>();
+        Comparator<Suggestion> byFrequency = Comparator.comparingInt(
+                suggestion -> -frequencies.computeIfAbsent(suggestion.text, counts::estimate)
+        );
+        return byFrequency.thenComparing(Suggestion::compareToIgnoreCase);
+    }
+}
@@ -27,33 +27,87 @@ public class Suggestions {
     }
 
     public static Suggestions create(Collection<Suggestion> suggestions) {
+        return create(suggestions, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param limit maximum count of suggestions kept, the first ones in order
+     */
+    public static Suggestions create(Collection<Suggestion> suggestions, int limit) {
+        return create(suggestions, limit, null);
+    }
+
+    /**
+     * @param order order of the suggestions, {@code null} for {@link Suggestion#compareToIgnoreCase(Suggestion)}
+     */
+    public static Suggestions create(Collection<Suggestion> suggestions, int limit, Comparator<Suggestion> order) {
+        if (order == null) order = TopSuggestions.ORDER;
 
         if (suggestions.isEmpty()) {
             return EMPTY;
         }
 
+        List<Suggestion> sorted;
+        if (suggestions.size() > limit) {
+            TopSuggestions top = new TopSuggestions(limit, order);
+            for (Suggestion suggestion : suggestions) top.offer(suggestion);
+            sorted = top.toSortedList();
+        } else {
+            sorted = new ArrayList<>(
+                    suggestions instanceof Set ? suggestions : new HashSet<>(suggestions)
+            );
+            sorted.sort(order);
+        }
+        return new Suggestions(rangeOf(sorted), sorted);
+    }
+
+    static Suggestions ofSorted(List<Suggestion> sorted) {
+        if (sorted.isEmpty()) return EMPTY;
+        return new Suggestions(rangeOf(sorted), sorted);
+    }
+
+    private static StringRange rangeOf(Collection<Suggestion> suggestions) {
         int start = Integer.MAX_VALUE;
         int end = Integer.MIN_VALUE;
         for (final Suggestion suggestion : suggestions) {
             start = Math.min(suggestion.range.start, start);
             end = Math.max(suggestion.range.end, end);
         }
-
-        List<Suggestion> sorted = new ArrayList<>(
-                suggestions instanceof Set ? suggestions : new HashSet<>(suggestions)
-        );
-        sorted.sort(Suggestion::compareToIgnoreCase);
-        return new Suggestions(StringRange.between(start, end), sorted);
+        return StringRange.between(start, end);
     }
 
     public static Suggestions merge(Collection<Suggestions> suggestions) {
+        return merge(suggestions, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Merge without collecting more than {@code limit} suggestions at any time.
+     */
+    public static Suggestions merge(Collection<Suggestions> suggestions, int limit) {
+        return merge(suggestions, limit, null);
+    }
+
+    /**
+     * @param order order of the merged suggestions, {@code null} for {@link Suggestion#compareToIgnoreCase(Suggestion)}
+     */
+    public static Suggestions merge(Collection<Suggestions> suggestions, int limit, Comparator<Suggestion> order) {
         if (suggestions.isEmpty()) return EMPTY;
-        if (suggestions.size() == 1) return suggestions.iterator().next();
+        if (order == null && suggestions.size() == 1 && suggestions.iterator().next().suggestions.size() <= limit) {
+            return suggestions.iterator().next();
+        }
+
+        if (limit == Integer.MAX_VALUE) {
+            Set<Suggestion> texts = new HashSet<>();
+            for (Suggestions s : suggestions) texts.addAll(s.suggestions);
 
-        Set<Suggestion> texts = new HashSet<>();
-        for (Suggestions s : suggestions) texts.addAll(s.suggestions);
+            return create(texts, limit, order);
+        }
 
-        return create(texts);
+        TopSuggestions top = new TopSuggestions(limit, order == null ? TopSuggestions.ORDER : order);
+        for (Suggestions s : suggestions) {
+            for (Suggestion suggestion : s.suggestions) top.offer(suggestion);
+        }
+        return ofSorted(top.toSortedList());
     }
 
 }
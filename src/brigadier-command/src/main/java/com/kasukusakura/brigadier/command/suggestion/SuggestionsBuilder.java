@@ -8,6 +8,7 @@ package com.kasukusakura.brigadier.command.suggestion;
 import com.kasukusakura.brigadier.command.context.StringRange;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -17,16 +18,56 @@ public class SuggestionsBuilder {
     public final int start;
     public final String remainingAsString;
     public final String remainingAsStringLowercase;
+    /**
+     * Maximum count of suggestions kept, the first ones in {@link #order}
+     */
+    public final int limit;
+    /**
+     * Order of the built suggestions, {@code null} for {@link Suggestion#compareToIgnoreCase(Suggestion)}
+     */
+    public final Comparator<Suggestion> order;
+    private final TopSuggestions top;
 
     public SuggestionsBuilder(CharSequence remaining, String remainingAsString, String remainingAsStringLowercase, int start) {
+        this(remaining, remainingAsString, remainingAsStringLowercase, start, Integer.MAX_VALUE);
+    }
+
+    public SuggestionsBuilder(CharSequence remaining, String remainingAsString, String remainingAsStringLowercase, int start, int limit) {
+        this(remaining, remainingAsString, remainingAsStringLowercase, start, limit, null);
+    }
+
+    public SuggestionsBuilder(CharSequence remaining, String remainingAsString, String remainingAsStringLowercase, int start, int limit, Comparator<Suggestion> order) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be positive: " + limit);
+
         this.remaining = remaining;
         this.remainingAsString = remainingAsString;
         this.remainingAsStringLowercase = remainingAsStringLowercase;
         this.start = start;
+        this.limit = limit;
+        this.order = order;
+        this.top = limit == Integer.MAX_VALUE ? null : new TopSuggestions(limit, order == null ? TopSuggestions.ORDER : order);
+    }
+
+    /**
+     * @return {@code true} if the limit is reached. Providers enumerating candidates in order may stop suggesting
+     */
+    public boolean isFull() {
+        return top != null && top.isFull();
+    }
+
+    /**
+     * @return {@code false} if a suggestion of the text would be dropped by the limit
+     */
+    public boolean accepts(String text) {
+        return top == null || top.accepts(text);
     }
 
     public Suggestions build() {
-        return Suggestions.create(suggestions);
+        if (top == null) return Suggestions.create(suggestions, Integer.MAX_VALUE, order);
+
+        for (Suggestion suggestion : suggestions) top.offer(suggestion);
+        suggestions.clear();
+        return Suggestions.ofSorted(top.toSortedList());
     }
 
     public CompletableFuture<Suggestions> buildFuture() {
@@ -37,7 +78,7 @@ public class SuggestionsBuilder {
         if (text.contentEquals(remaining)) {
             return this;
         }
-        suggestions.add(new Suggestion(StringRange.at(start), text, null));
+        add(new Suggestion(StringRange.at(start), text, null));
         return this;
     }
 
@@ -45,11 +86,19 @@ public class SuggestionsBuilder {
         if (text.contentEquals(remaining)) {
             return this;
         }
-        suggestions.add(new Suggestion(StringRange.at(start), text, tooltip));
+        add(new Suggestion(StringRange.at(start), text, tooltip));
         return this;
     }
 
+    private void add(Suggestion suggestion) {
+        if (top == null) {
+            suggestions.add(suggestion);
+        } else {
+            top.offer(suggestion);
+        }
+    }
+
     public SuggestionsBuilder newClean() {
-        return new SuggestionsBuilder(remaining, remainingAsString, remainingAsStringLowercase, start);
+        return new SuggestionsBuilder(remaining, remainingAsString, remainingAsStringLowercase, start, limit, order);
     }
 }
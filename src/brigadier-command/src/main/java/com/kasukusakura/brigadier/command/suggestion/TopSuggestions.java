@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.suggestion;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Keeps the first {@code limit} distinct suggestions in order, {@link Suggestion#compareToIgnoreCase(Suggestion)} by default.
+ * The head of the heap is the last kept suggestion, so a worse one is rejected in O(1).
+ */
+final class TopSuggestions {
+    static final Comparator<Suggestion> ORDER = Suggestion::compareToIgnoreCase;
+
+    private final int limit;
+    private final Comparator<Suggestion> order;
+    private final PriorityQueue<Suggestion> heap;
+    private final Set<Suggestion> members = new HashSet<>();
+
+    TopSuggestions(int limit) {
+        this(limit, ORDER);
+    }
+
+    TopSuggestions(int limit, Comparator<Suggestion> order) {
+        this.limit = limit;
+        this.order = order;
+        this.heap = new PriorityQueue<>(Math.min(limit, 64) + 1, order.reversed());
+    }
+
+    boolean isFull() {
+        return heap.size() >= limit;
+    }
+
+    /**
+     * @return whether a suggestion with the text would be kept
+     */
+    boolean accepts(String text) {
+        if (!isFull()) return true;
+        if (order == ORDER) return text.compareToIgnoreCase(heap.peek().text) < 0;
+
+        Suggestion last = heap.peek();
+        return order.compare(new Suggestion(last.range, text, null), last) < 0;
+    }
+
+    void offer(Suggestion suggestion) {
+        if (isFull() && order.compare(suggestion, heap.peek()) >= 0) return;
+        if (!members.add(suggestion)) return;
+
+        heap.add(suggestion);
+        if (heap.size() > limit) {
+            members.remove(heap.poll());
+        }
+    }
+
+    int size() {
+        return heap.size();
+    }
+
+    List<Suggestion> toSortedList() {
+        List<Suggestion> sorted = new ArrayList<>(heap);
+        sorted.sort(order);
+        return sorted;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.tree;
+
+/**
+ * Settings of adaptive argument ordering.
+ * <p>
+ * When a node owns more than one argument child, the dispatcher records which child parsed successfully
+ * and periodically reorders the candidates so the most likely match is tried first.
+ *
+ * @see com.kasukusakura.brigadier.command.CommandDispatcher#adaptiveArgumentOrder
+ */
+public class AdaptiveArgumentOrder {
+    public static final AdaptiveArgumentOrder DEFAULT = new AdaptiveArgumentOrder(64, 0.5, true);
+
+    /**
+     * Average count of recorded attempts between two reorders of the same node
+     */
+    public final int reorderInterval;
+    /**
+     * Weight of the old score when reordering, {@code 0} means only the latest window counts
+     */
+    public final double decay;
+    /**
+     * Stop trying the remaining candidates once one of them consumed the whole input without error
+     */
+    public final boolean shortCircuit;
+
+    public AdaptiveArgumentOrder(int reorderInterval, double decay, boolean shortCircuit) {
+        if (reorderInterval < 1) {
+            throw new IllegalArgumentException("reorderInterval must be positive: " + reorderInterval);
+        }
+        if (!(decay >= 0 && decay <= 1)) {
+            throw new IllegalArgumentException("decay must be in [0, 1]: " + decay);
+        }
+        this.reorderInterval = reorderInterval;
+        this.decay = decay;
+        this.shortCircuit = shortCircuit;
+    }
+}
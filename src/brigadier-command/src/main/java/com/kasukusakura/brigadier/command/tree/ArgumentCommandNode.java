@@ -9,6 +9,7 @@ import com.kasukusakura.brigadier.command.CommandDispatcher;
 import com.kasukusakura.brigadier.command.CommandPreprocessHandler;
 import com.kasukusakura.brigadier.command.RedirectModifier;
 import com.kasukusakura.brigadier.command.arguments.ArgumentType;
+import com.kasukusakura.brigadier.command.arguments.PrimitiveArgumentType;
 import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
 import com.kasukusakura.brigadier.command.context.StringRange;
 import com.kasukusakura.brigadier.command.exceptions.CommandSyntaxException;
@@ -16,12 +17,14 @@ import com.kasukusakura.brigadier.command.suggestion.Suggestions;
 import com.kasukusakura.brigadier.command.suggestion.SuggestionsBuilder;
 import com.kasukusakura.brigadier.reader.AnyValueReader;
 
+import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 
 public class ArgumentCommandNode<Src, T> extends CommandNode<Src> {
     private final String name;
     private final ArgumentType<T> arg;
+    int slot = -1;
 
     public ArgumentCommandNode(
             String name, ArgumentType<T> argumentType,
@@ -39,10 +42,37 @@ public class ArgumentCommandNode<Src, T> extends CommandNode<Src> {
     @Override
     public void parse(CommandContextBuilder<Src> contextBuilder, AnyValueReader reader) throws CommandSyntaxException {
         int cursor = reader.getCursor();
+        parseValue(contextBuilder, reader);
+        contextBuilder.withNode(this, StringRange.between(cursor, reader.getCursor()));
+    }
+
+    /**
+     * Parse a value supplied outside of the command input. The value must be consumed completely by the argument type.
+     *
+     * @param range the range of the argument in the command template
+     */
+    public void bind(CommandContextBuilder<Src> contextBuilder, Object value, StringRange range) throws CommandSyntaxException {
+        AnyValueReader reader = new AnyValueReader(Collections.singletonList(value));
+        parseValue(contextBuilder, reader);
+        if (reader.canRead()) {
+            throw incorrectArgument(reader, contextBuilder.getDispatcher(), null);
+        }
+        contextBuilder.withNode(this, range);
+    }
+
+    private void parseValue(CommandContextBuilder<Src> contextBuilder, AnyValueReader reader) throws CommandSyntaxException {
+        int cursor = reader.getCursor();
 
         try {
-            T rsp = arg.parse(contextBuilder, reader);
-            contextBuilder.withArgument(getName(), arg.type(), rsp);
+            // Copies in filtered views store their values under the original node
+            ArgumentCommandNode<Src, ?> origin = (ArgumentCommandNode<Src, ?>) getOrigin();
+            if (arg instanceof PrimitiveArgumentType) {
+                long raw = ((PrimitiveArgumentType<T>) arg).parseRaw(contextBuilder, reader);
+                contextBuilder.withRawArgument(origin, raw);
+            } else {
+                T rsp = arg.parse(contextBuilder, reader);
+                contextBuilder.withArgument(origin, rsp);
+            }
         } catch (CommandSyntaxException e) {
             reader.setCursor(cursor);
             throw e;
@@ -50,7 +80,6 @@ public class ArgumentCommandNode<Src, T> extends CommandNode<Src> {
             reader.setCursor(cursor);
             throw incorrectArgument(reader, contextBuilder.getDispatcher(), cause);
         }
-        contextBuilder.withNode(this, StringRange.between(cursor, reader.getCursor()));
     }
 
     public static String incorrectArgumentMessage(AnyValueReader reader) {
@@ -66,6 +95,19 @@ public class ArgumentCommandNode<Src, T> extends CommandNode<Src> {
         return name;
     }
 
+    public ArgumentType<T> getType() {
+        return arg;
+    }
+
+    /**
+     * The index of this argument in the parsed context, assigned by {@link RootCommandNode#freeze()}.
+     *
+     * @return the slot, or {@code -1} if unknown
+     */
+    public int getSlot() {
+        return slot;
+    }
+
     @Override
     public CompletableFuture<Suggestions> listSuggestions(CommandContextBuilder<Src> context, SuggestionsBuilder builder) {
         return arg.listSuggestions(context, builder);
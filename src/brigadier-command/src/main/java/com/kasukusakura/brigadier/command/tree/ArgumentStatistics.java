@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.tree;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+final class ArgumentStatistics<Src> {
+    private final ArgumentCommandNode<Src, ?>[] candidates;
+    private final LongAdder[] successes;
+    private final double[] scores;
+    private final AtomicBoolean reordering = new AtomicBoolean();
+
+    volatile Collection<ArgumentCommandNode<Src, ?>> order;
+
+    @SuppressWarnings("unchecked")
+    ArgumentStatistics(Collection<ArgumentCommandNode<Src, ?>> arguments) {
+        this.candidates = arguments.toArray((ArgumentCommandNode<Src, ?>[]) new ArgumentCommandNode<?, ?>[0]);
+        this.successes = new LongAdder[candidates.length];
+        this.scores = new double[candidates.length];
+        for (int i = 0; i < successes.length; i++) {
+            successes[i] = new LongAdder();
+        }
+        this.order = Collections.unmodifiableList(Arrays.asList(candidates.clone()));
+    }
+
+    void record(CommandNode<Src> child, boolean success, AdaptiveArgumentOrder settings) {
+        if (success) {
+            ArgumentCommandNode<Src, ?>[] candidates = this.candidates;
+            for (int i = 0; i < candidates.length; i++) {
+                if (candidates[i] == child) {
+                    successes[i].increment();
+                    break;
+                }
+            }
+        }
+        if (ThreadLocalRandom.current().nextInt(settings.reorderInterval) == 0) {
+            reorder(settings);
+        }
+    }
+
+    private void reorder(AdaptiveArgumentOrder settings) {
+        if (!reordering.compareAndSet(false, true)) return;
+        try {
+            Integer[] indexes = new Integer[candidates.length];
+            for (int i = 0; i < candidates.length; i++) {
+                scores[i] = scores[i] * settings.decay + successes[i].sumThenReset();
+                indexes[i] = i;
+            }
+            Arrays.sort(indexes, Comparator.comparingDouble((Integer i) -> scores[i]).reversed());
+
+            @SuppressWarnings("unchecked")
+            ArgumentCommandNode<Src, ?>[] newOrder = (ArgumentCommandNode<Src, ?>[]) new ArgumentCommandNode<?, ?>[candidates.length];
+            for (int i = 0; i < indexes.length; i++) {
+                newOrder[i] = candidates[indexes[i]];
+            }
+            order = Collections.unmodifiableList(Arrays.asList(newOrder));
+        } finally {
+            reordering.set(false);
+        }
+    }
+}
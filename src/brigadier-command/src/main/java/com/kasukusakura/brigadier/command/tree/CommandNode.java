@@ -8,14 +8,17 @@ package com.kasukusakura.brigadier.command.tree;
 import com.kasukusakura.brigadier.command.CommandHandler;
 import com.kasukusakura.brigadier.command.CommandPreprocessHandler;
 import com.kasukusakura.brigadier.command.RedirectModifier;
+import com.kasukusakura.brigadier.command.cache.RequirementMemo;
 import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
 import com.kasukusakura.brigadier.command.exceptions.CommandSyntaxException;
 import com.kasukusakura.brigadier.command.suggestion.Suggestions;
 import com.kasukusakura.brigadier.command.suggestion.SuggestionsBuilder;
 import com.kasukusakura.brigadier.reader.AnyValueReader;
+import com.kasukusakura.brigadier.utils.BKTree;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
 public abstract class CommandNode<Src> {
@@ -36,6 +39,7 @@ public abstract class CommandNode<Src> {
     }
 
     private static final Predicate<?> ALLOW_ALL = s -> true;
+    static final AtomicLong[] NO_VERSIONS = new AtomicLong[0];
 
     @SuppressWarnings("unchecked")
     public static <T> Predicate<T> allowAll() {
@@ -45,10 +49,19 @@ public abstract class CommandNode<Src> {
     Map<String, CommandNode<Src>> children = Collections.emptyMap();
     Map<String, ArgumentCommandNode<Src, ?>> arguments = Collections.emptyMap();
     Map<String, LiteralCommandNode<Src>> literals = Collections.emptyMap();
-
+    volatile ArgumentStatistics<Src> argumentStatistics;
+    volatile BKTree literalIndex;
+    long permissionBits;
+    /**
+     * Versions of the tracked trees containing this node
+     *
+     * @see RootCommandNode#treeVersion()
+     */
+    volatile AtomicLong[] treeVersions = NO_VERSIONS;
 
     private final Predicate<Src> requirement;
-    private final CommandNode<Src> redirect;
+    private CommandNode<Src> redirect;
+    private CommandNode<Src> origin = this;
     private final RedirectModifier<Src> modifier;
     private final boolean fork;
     private CommandPreprocessHandler<Src> preprocessHandler;
@@ -75,16 +88,47 @@ public abstract class CommandNode<Src> {
 
     public void setPreprocessHandler(CommandPreprocessHandler<Src> preprocessHandler) {
         this.preprocessHandler = preprocessHandler;
+        markTreeChanged();
     }
 
     public void setCommandHandler(CommandHandler<Src> commandHandler) {
-        this.preprocessHandler = commandHandler;
+        setPreprocessHandler(commandHandler);
     }
 
     public Predicate<Src> getRequirement() {
         return requirement;
     }
 
+    /**
+     * Permission bits needed by this node and by every path to an executable node through it.
+     * Computed when the tree is frozen.
+     *
+     * @see PermissionRequirement
+     */
+    public long getPermissionBits() {
+        return permissionBits;
+    }
+
+    /**
+     * @return the node this node was copied from by a filtered view, or this node itself.
+     * Nodes parsed from a view are copies, compare the origins to identify a registered node.
+     * @see RootCommandNode#filteredView(RequirementMemo)
+     */
+    public CommandNode<Src> getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Copy the handlers and settings of the origin without marking the tree changed
+     */
+    void initCopy(CommandNode<Src> origin, CommandNode<Src> redirect) {
+        this.origin = origin.origin;
+        this.redirect = redirect;
+        this.preprocessHandler = origin.preprocessHandler;
+        this.inheritCommandHandlerForChild = origin.inheritCommandHandlerForChild;
+        this.description = origin.description;
+    }
+
     public CommandNode<Src> getRedirect() {
         return redirect;
     }
@@ -136,6 +180,54 @@ public abstract class CommandNode<Src> {
         if (node instanceof RootCommandNode) {
             throw new IllegalArgumentException("Registering RootCommandNode as child");
         }
+        putChild(node);
+        attach(node, treeVersions);
+        markTreeChanged();
+        return this;
+    }
+
+    /**
+     * Increase the versions of the trees containing this node, does nothing if the node is not in a tracked tree
+     */
+    protected void markTreeChanged() {
+        for (AtomicLong version : treeVersions) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Add the versions to the node and everything reachable from it
+     */
+    static void attach(CommandNode<?> node, AtomicLong[] versions) {
+        if (versions.length == 0) return;
+
+        Deque<CommandNode<?>> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            CommandNode<?> current = pending.pop();
+            AtomicLong[] merged = merge(current.treeVersions, versions);
+            if (merged == current.treeVersions) continue;
+
+            current.treeVersions = merged;
+            pending.addAll(current.children.values());
+            if (current.redirect != null) pending.push(current.redirect);
+        }
+    }
+
+    private static AtomicLong[] merge(AtomicLong[] current, AtomicLong[] versions) {
+        AtomicLong[] merged = current;
+        next:
+        for (AtomicLong version : versions) {
+            for (AtomicLong existing : merged) {
+                if (existing == version) continue next;
+            }
+            merged = Arrays.copyOf(merged, merged.length + 1);
+            merged[merged.length - 1] = version;
+        }
+        return merged;
+    }
+
+    void putChild(CommandNode<Src> node) {
         initMap();
         children.put(node.getName(), node);
         if (node instanceof LiteralCommandNode) {
@@ -143,10 +235,15 @@ public abstract class CommandNode<Src> {
         } else if (node instanceof ArgumentCommandNode) {
             arguments.put(node.getName(), (ArgumentCommandNode<Src, ?>) node);
         }
-        return this;
+        argumentStatistics = null;
+        literalIndex = null;
     }
 
     public Collection<? extends CommandNode<Src>> getRelevantNodes(AnyValueReader input) {
+        return getRelevantNodes(input, null);
+    }
+
+    public Collection<? extends CommandNode<Src>> getRelevantNodes(AnyValueReader input, AdaptiveArgumentOrder order) {
         if (literals.size() > 0) {
             int cursor = input.getCursor();
             Object wordAny = input.readAny();
@@ -160,9 +257,52 @@ public abstract class CommandNode<Src> {
         if (arguments.isEmpty()) {
             return children.values();
         }
-        return arguments.values();
+        if (order == null || arguments.size() < 2) {
+            return arguments.values();
+        }
+        return argumentStatistics().order;
     }
 
+    /**
+     * Record the parsing result of a child returned by {@link #getRelevantNodes(AnyValueReader, AdaptiveArgumentOrder)}
+     */
+    public void recordArgumentAttempt(CommandNode<Src> child, boolean success, AdaptiveArgumentOrder order) {
+        if (order == null || arguments.size() < 2) return;
+        if (!(child instanceof ArgumentCommandNode)) return;
+
+        argumentStatistics().record(child, success, order);
+    }
+
+    private ArgumentStatistics<Src> argumentStatistics() {
+        ArgumentStatistics<Src> statistics = argumentStatistics;
+        if (statistics == null) {
+            argumentStatistics = statistics = new ArgumentStatistics<>(arguments.values());
+        }
+        return statistics;
+    }
+
+    /**
+     * Names of the literal children within the edit distance of the word, closest first.
+     * The index is built when the tree is frozen.
+     *
+     * @see BKTree
+     */
+    public List<String> closestLiterals(String word, int maxDistance, int limit) {
+        if (literals.isEmpty()) return Collections.emptyList();
+        return literalIndex().search(word, maxDistance, limit);
+    }
+
+    BKTree literalIndex() {
+        BKTree index = literalIndex;
+        if (index == null) {
+            literalIndex = index = BKTree.of(literals.keySet());
+        }
+        return index;
+    }
+
+    public CommandNode<Src> getChild(String name) {
+        return children.get(name);
+    }
 
     public Collection<CommandNode<Src>> getChildren() {
         return children.values();
@@ -170,6 +310,19 @@ public abstract class CommandNode<Src> {
 
     public abstract CompletableFuture<Suggestions> listSuggestions(CommandContextBuilder<Src> context, SuggestionsBuilder builder);
 
+    /**
+     * @deprecated The tree and the dispatcher render through
+     * {@link #renderUsageMessage(StringBuilder, StringBuilder, boolean, boolean, boolean, RequirementMemo)},
+     * so the requirements are tested once per rendering. Overriding this overload has no effect anymore,
+     * subclasses must override the {@link RequirementMemo} one instead.
+     * <p>
+     * This overload has no dispatcher: it only uses the source's own {@link com.kasukusakura.brigadier.command.PermissionMaskSource}
+     * mask and tests requirements without the dispatcher's requirement cache, so the usage may differ from
+     * {@link com.kasukusakura.brigadier.command.CommandDispatcher#renderHelpUsage(CommandNode, Object)}.
+     * Pass {@link com.kasukusakura.brigadier.command.CommandDispatcher#newRequirementMemo(Object)} to the other overload
+     * to render what the dispatcher shows.
+     */
+    @Deprecated
     public void renderUsageMessage(
             StringBuilder prefix,
             StringBuilder content,
@@ -178,7 +331,22 @@ public abstract class CommandNode<Src> {
             boolean includeAllChild,
             Src source
     ) {
-        if (source != null && !requirement.test(source)) {
+        renderUsageMessage(prefix, content, addSplitter, includeChild, includeAllChild,
+                source == null ? null : new RequirementMemo<>(source, null));
+    }
+
+    /**
+     * @param requirements requirements of the viewer, {@code null} to render all nodes
+     */
+    public void renderUsageMessage(
+            StringBuilder prefix,
+            StringBuilder content,
+            boolean addSplitter,
+            boolean includeChild,
+            boolean includeAllChild,
+            RequirementMemo<Src> requirements
+    ) {
+        if (requirements != null && !requirements.test(this)) {
             return;
         }
 
@@ -231,7 +399,7 @@ public abstract class CommandNode<Src> {
 
         Iterator<CommandNode<Src>> iterator = children.values().stream().sorted(comparator()).iterator();
         while (iterator.hasNext()) {
-            iterator.next().renderUsageMessage(prefix, content, true, includeAllChild, true, source);
+            iterator.next().renderUsageMessage(prefix, content, true, includeAllChild, true, requirements);
         }
 
         prefix.setLength(finalLength);
@@ -5,6 +5,7 @@
 
 package com.kasukusakura.brigadier.command.tree;
 
+import com.kasukusakura.brigadier.command.CommandDispatcher;
 import com.kasukusakura.brigadier.command.CommandPreprocessHandler;
 import com.kasukusakura.brigadier.command.RedirectModifier;
 import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
@@ -48,6 +49,20 @@ public class LiteralCommandNode<Src> extends CommandNode<Src> {
         contextBuilder.withNode(this, StringRange.between(cursor, reader.getCursor()));
     }
 
+    /**
+     * Check the next token without moving the reader
+     *
+     * @return the exception {@link #parse(CommandContextBuilder, AnyValueReader)} would throw, or {@code null} if the token matches
+     */
+    public CommandSyntaxException mismatch(CommandDispatcher<?> dispatcher, AnyValueReader reader) {
+        int cursor = reader.getCursor();
+        String readed = String.valueOf(reader.readAny());
+        reader.setCursor(cursor);
+        if (name.equals(readed)) return null;
+
+        return dispatcher.newCommandSyntaxException("Excepted " + name + " but found " + readed + " at " + cursor);
+    }
+
     @Override
     public String getName() {
         return name;
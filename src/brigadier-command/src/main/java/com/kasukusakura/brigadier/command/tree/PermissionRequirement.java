@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.tree;
+
+import com.kasukusakura.brigadier.command.PermissionMaskSource;
+
+import java.util.function.Predicate;
+
+/**
+ * A requirement satisfied when the permission mask of the source contains all the bits.
+ * <p>
+ * Unlike other requirements, the dispatcher checks it with the mask resolved once per operation, and
+ * prunes whole subtrees whose every path needs bits missing from the mask.
+ * <p>
+ * A direct call of {@link #test(Object)}, e.g. through {@link CommandNode#getRequirement()}, only reads the
+ * mask of a {@link PermissionMaskSource} and ignores {@link com.kasukusakura.brigadier.command.CommandDispatcher#permissionMask}.
+ * Use {@link com.kasukusakura.brigadier.command.CommandDispatcher#newRequirementMemo(Object)} to check a node
+ * the way the dispatcher does.
+ *
+ * @see CommandNode#getPermissionBits()
+ * @see com.kasukusakura.brigadier.command.CommandDispatcher#permissionMask
+ */
+public final class PermissionRequirement<Src> implements Predicate<Src> {
+    public final long bits;
+
+    private PermissionRequirement(long bits) {
+        this.bits = bits;
+    }
+
+    public static <Src> PermissionRequirement<Src> of(long bits) {
+        return new PermissionRequirement<>(bits);
+    }
+
+    public boolean test(long mask) {
+        return (mask & bits) == bits;
+    }
+
+    /**
+     * Sources not implementing {@link PermissionMaskSource} have no permission,
+     * the mask resolver of the dispatcher is not consulted
+     */
+    @Override
+    public boolean test(Src src) {
+        return test(src instanceof PermissionMaskSource ? ((PermissionMaskSource) src).getPermissionMask() : 0L);
+    }
+
+    @Override
+    public String toString() {
+        return "PermissionRequirement[0x" + Long.toHexString(bits) + "]";
+    }
+}
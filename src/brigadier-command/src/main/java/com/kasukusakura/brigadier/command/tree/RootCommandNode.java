@@ -5,6 +5,7 @@
 
 package com.kasukusakura.brigadier.command.tree;
 
+import com.kasukusakura.brigadier.command.cache.RequirementMemo;
 import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
 import com.kasukusakura.brigadier.command.exceptions.CommandSyntaxException;
 import com.kasukusakura.brigadier.command.suggestion.Suggestions;
@@ -12,12 +13,68 @@ import com.kasukusakura.brigadier.command.suggestion.SuggestionsBuilder;
 import com.kasukusakura.brigadier.reader.AnyValueReader;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class RootCommandNode<Src> extends CommandNode<Src> {
+    private volatile long frozenVersion = -1;
+    /**
+     * Views are never changed and not tracked
+     */
+    boolean view;
+    private volatile AtomicLong version;
+
     public RootCommandNode() {
         super(null, allowAll(), null, null, false);
     }
 
+    /**
+     * Version of this tree, increased when a node of the tree registers a child or changes its handler.
+     * The tree is tracked from the first call, nodes built but never registered into it do not change it.
+     */
+    public long treeVersion() {
+        if (view) return 0;
+
+        AtomicLong version = this.version;
+        if (version == null) {
+            synchronized (this) {
+                version = this.version;
+                if (version == null) {
+                    version = new AtomicLong();
+                    attach(this, new AtomicLong[]{version});
+                    this.version = version;
+                }
+            }
+        }
+        return version.get();
+    }
+
+    /**
+     * Precompute the indexes used by parsing. Does nothing if the tree was not changed since the last freeze.
+     */
+    public void freeze() {
+        long version = treeVersion();
+        if (frozenVersion == version) return;
+
+        synchronized (this) {
+            if (frozenVersion == version) return;
+
+            TreeFreezer.freeze(this);
+            frozenVersion = version;
+        }
+    }
+
+    /**
+     * Copy the tree without the nodes whose requirements fail, the copies have no requirement.
+     * Redirect targets are kept even if their own requirements fail, as parsing never tests them.
+     * Nodes other than plain literals and arguments are shared with this tree unfiltered.
+     *
+     * @see CommandNode#getOrigin()
+     */
+    public RootCommandNode<Src> filteredView(RequirementMemo<Src> requirements) {
+        freeze();
+        return TreeViewBuilder.build(this, requirements);
+    }
+
     @Override
     public void parse(CommandContextBuilder<Src> contextBuilder, AnyValueReader reader) throws CommandSyntaxException {
     }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.tree;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Precomputes the per-node indexes of a command tree.
+ *
+ * @see RootCommandNode#freeze()
+ */
+final class TreeFreezer {
+    private static final int CONFLICT = -1;
+
+    private TreeFreezer() {
+    }
+
+    static void freeze(RootCommandNode<?> root) {
+        assignSlots(root);
+        computePermissionBits(root);
+        buildLiteralIndexes(root);
+    }
+
+    /**
+     * An argument slot is the index of the argument in its context.
+     * Arguments reachable with different counts of preceding arguments have no slot.
+     */
+    private static void assignSlots(RootCommandNode<?> root) {
+        Map<CommandNode<?>, Integer> argumentCounts = new IdentityHashMap<>();
+        Deque<CommandNode<?>> pending = new ArrayDeque<>();
+
+        visit(argumentCounts, pending, root, 0);
+        while (!pending.isEmpty()) {
+            CommandNode<?> node = pending.removeFirst();
+            int count = argumentCounts.get(node);
+
+            for (CommandNode<?> child : node.children.values()) {
+                int childCount = count;
+                if (count != CONFLICT && child instanceof ArgumentCommandNode) {
+                    childCount = count + 1;
+                }
+                visit(argumentCounts, pending, child, childCount);
+            }
+            if (node.getRedirect() != null) {
+                // Redirected nodes are parsed with a new context
+                visit(argumentCounts, pending, node.getRedirect(), 0);
+            }
+        }
+
+        for (Map.Entry<CommandNode<?>, Integer> entry : argumentCounts.entrySet()) {
+            if (entry.getKey() instanceof ArgumentCommandNode) {
+                int count = entry.getValue();
+                ((ArgumentCommandNode<?, ?>) entry.getKey()).slot = count == CONFLICT ? CONFLICT : count - 1;
+            }
+        }
+    }
+
+    /**
+     * Children are computed before their parent. Redirect targets are computed on their own,
+     * a redirect ends the path of the node owning it.
+     */
+    private static void computePermissionBits(RootCommandNode<?> root) {
+        Set<CommandNode<?>> entered = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<CommandNode<?>> computed = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<CommandNode<?>> stack = new ArrayDeque<>();
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            CommandNode<?> node = stack.peek();
+            if (entered.add(node)) {
+                for (CommandNode<?> child : node.children.values()) {
+                    if (!entered.contains(child)) stack.push(child);
+                }
+                if (node.getRedirect() != null && !entered.contains(node.getRedirect())) {
+                    stack.push(node.getRedirect());
+                }
+                continue;
+            }
+            stack.pop();
+            if (!computed.add(node)) continue;
+
+            long bits = 0;
+            if (node.getRequirement() instanceof PermissionRequirement) {
+                bits = ((PermissionRequirement<?>) node.getRequirement()).bits;
+            }
+            if (node.getPreprocessHandler() == null && node.getRedirect() == null && !node.children.isEmpty()) {
+                long pathBits = -1L;
+                for (CommandNode<?> child : node.children.values()) {
+                    // A child not computed yet is part of a cycle
+                    pathBits &= computed.contains(child) ? child.permissionBits : 0L;
+                }
+                bits |= pathBits;
+            }
+            node.permissionBits = bits;
+        }
+    }
+
+    private static void buildLiteralIndexes(RootCommandNode<?> root) {
+        Set<CommandNode<?>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<CommandNode<?>> pending = new ArrayDeque<>();
+        pending.push(root);
+
+        while (!pending.isEmpty()) {
+            CommandNode<?> node = pending.pop();
+            if (!visited.add(node)) continue;
+
+            if (!node.literals.isEmpty()) node.literalIndex();
+            pending.addAll(node.children.values());
+            if (node.getRedirect() != null) pending.push(node.getRedirect());
+        }
+    }
+
+    private static void visit(Map<CommandNode<?>, Integer> argumentCounts, Deque<CommandNode<?>> pending, CommandNode<?> node, int count) {
+        Integer old = argumentCounts.get(node);
+        if (old == null) {
+            argumentCounts.put(node, count);
+            pending.addLast(node);
+        } else if (old != count && old != CONFLICT) {
+            argumentCounts.put(node, CONFLICT);
+            pending.addLast(node);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command.tree;
+
+import com.kasukusakura.brigadier.command.cache.RequirementMemo;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * @see RootCommandNode#filteredView(RequirementMemo)
+ */
+final class TreeViewBuilder<Src> {
+    private final RequirementMemo<Src> requirements;
+    private final Map<CommandNode<Src>, CommandNode<Src>> copies = new IdentityHashMap<>();
+    private final Deque<CommandNode<Src>> pending = new ArrayDeque<>();
+
+    private TreeViewBuilder(RequirementMemo<Src> requirements) {
+        this.requirements = requirements;
+    }
+
+    static <Src> RootCommandNode<Src> build(RootCommandNode<Src> root, RequirementMemo<Src> requirements) {
+        TreeViewBuilder<Src> builder = new TreeViewBuilder<>(requirements);
+        RootCommandNode<Src> view = new RootCommandNode<>();
+        view.view = true;
+        builder.copies.put(root, view);
+        builder.pending.add(root);
+        builder.run();
+        return view;
+    }
+
+    private void run() {
+        while (!pending.isEmpty()) {
+            CommandNode<Src> node = pending.removeFirst();
+            CommandNode<Src> copy = copies.get(node);
+
+            for (CommandNode<Src> child : node.children.values()) {
+                if (requirements.test(child)) {
+                    copy.putChild(copyOf(child));
+                }
+            }
+            copy.initCopy(node, node.getRedirect() == null ? null : copyOf(node.getRedirect()));
+        }
+    }
+
+    private CommandNode<Src> copyOf(CommandNode<Src> node) {
+        CommandNode<Src> copy = copies.get(node);
+        if (copy != null) return copy;
+
+        if (node.getClass() == LiteralCommandNode.class) {
+            copy = new LiteralCommandNode<>(node.getName(), null, CommandNode.allowAll(), null, node.getRedirectModifier(), node.isFork());
+        } else if (node.getClass() == ArgumentCommandNode.class) {
+            copy = copyArgument((ArgumentCommandNode<Src, ?>) node);
+        } else if (node.getClass() == RootCommandNode.class) {
+            copy = new RootCommandNode<>();
+        } else {
+            // Unknown node types may depend on their own class or children
+            copies.put(node, node);
+            return node;
+        }
+        copies.put(node, copy);
+        pending.addLast(node);
+        return copy;
+    }
+
+    private static <Src, T> ArgumentCommandNode<Src, T> copyArgument(ArgumentCommandNode<Src, T> node) {
+        return new ArgumentCommandNode<>(node.getName(), node.getType(), null, CommandNode.allowAll(), null, node.getRedirectModifier(), node.isFork());
+    }
+}
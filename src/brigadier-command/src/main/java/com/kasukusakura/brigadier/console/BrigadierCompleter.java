@@ -8,35 +8,77 @@ package com.kasukusakura.brigadier.console;
 import com.kasukusakura.brigadier.command.CommandDispatcher;
 import com.kasukusakura.brigadier.command.ParsedResults;
 import com.kasukusakura.brigadier.command.suggestion.Suggestion;
+import com.kasukusakura.brigadier.command.suggestion.SuggestionRanking;
 import com.kasukusakura.brigadier.command.suggestion.Suggestions;
-import com.kasukusakura.brigadier.reader.AnyValueReader;
 import org.jline.reader.Candidate;
 import org.jline.reader.Completer;
 import org.jline.reader.LineReader;
 import org.jline.reader.ParsedLine;
 
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class BrigadierCompleter<Src> implements Completer {
     private final CommandDispatcher<Src> dispatcher;
-    private final Src theConsole;
+    private final ConsoleParseCache<Src> parseCache;
+    /**
+     * Maximum time waiting for suggestions, in milliseconds, {@code 0} to wait for all providers
+     */
+    public long timeoutMillis = 200;
+    /**
+     * Maximum count of candidates
+     */
+    public int limit = Integer.MAX_VALUE;
+    /**
+     * Candidates offered since the last accepted line, reported to the {@link CommandDispatcher#suggestionRanking}
+     */
+    private final Set<String> offered = ConcurrentHashMap.newKeySet();
 
     public BrigadierCompleter(CommandDispatcher<Src> dispatcher, Src theConsole) {
-        this.dispatcher = dispatcher;
-        this.theConsole = theConsole;
+        this(new ConsoleParseCache<>(dispatcher, theConsole));
+    }
+
+    /**
+     * @param parseCache cache shared with the {@link BrigadierHighlighter} of the console
+     */
+    public BrigadierCompleter(ConsoleParseCache<Src> parseCache) {
+        this.dispatcher = parseCache.dispatcher;
+        this.parseCache = parseCache;
     }
 
     @Override
     public void complete(LineReader reader, ParsedLine line, List<Candidate> candidates) {
-        ParsedResults<Src> results = dispatcher.parse(new AnyValueReader(line.line()), theConsole);
-        CompletableFuture<Suggestions> completionSuggestions = dispatcher.getCompletionSuggestions(results, line.cursor());
+        ParsedResults<Src> results = parseCache.parse(line.line());
+        CompletableFuture<Suggestions> completionSuggestions = dispatcher.getCompletionSuggestions(
+                results, line.cursor(), limit, timeoutMillis, TimeUnit.MILLISECONDS
+        );
 
         Suggestions suggestions = completionSuggestions.join();
+        boolean ranked = dispatcher.suggestionRanking != null;
         for (Suggestion sug : suggestions.suggestions) {
+            if (ranked) offered.add(sug.text);
             candidates.add(new Candidate(
                     sug.text, sug.text, null, sug.tooltip, null, null, false
             ));
         }
     }
+
+    /**
+     * Reports a line accepted by the console, call it after {@link LineReader#readLine()} returns.
+     * Every token of the line that was offered as a candidate counts as a selection.
+     */
+    public void accepted(String line) {
+        SuggestionRanking ranking = dispatcher.suggestionRanking;
+        if (ranking != null && !offered.isEmpty()) {
+            for (String token : line.split("\\s+")) {
+                if (offered.contains(token)) {
+                    ranking.recordSelection(token);
+                }
+            }
+        }
+        offered.clear();
+    }
 }
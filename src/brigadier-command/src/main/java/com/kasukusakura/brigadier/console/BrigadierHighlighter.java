@@ -7,10 +7,9 @@ package com.kasukusakura.brigadier.console;
 
 import com.kasukusakura.brigadier.command.CommandDispatcher;
 import com.kasukusakura.brigadier.command.ParsedResults;
-import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
-import com.kasukusakura.brigadier.command.context.ParsedCommandNode;
+import com.kasukusakura.brigadier.command.ValidationResult;
 import com.kasukusakura.brigadier.command.tree.ArgumentCommandNode;
-import com.kasukusakura.brigadier.command.tree.LiteralCommandNode;
+import com.kasukusakura.brigadier.command.tree.CommandNode;
 import org.jline.reader.Highlighter;
 import org.jline.reader.LineReader;
 import org.jline.utils.AttributedString;
@@ -20,8 +19,7 @@ import org.jline.utils.AttributedStyle;
 import java.util.regex.Pattern;
 
 public class BrigadierHighlighter<Src> implements Highlighter {
-    private final CommandDispatcher<Src> dispatcher;
-    private final Src theConsole;
+    private final ConsoleParseCache<Src> parseCache;
     static final int[] COLORS = new int[]{
             AttributedStyle.CYAN,
             AttributedStyle.YELLOW,
@@ -31,8 +29,14 @@ public class BrigadierHighlighter<Src> implements Highlighter {
     };
 
     public BrigadierHighlighter(CommandDispatcher<Src> dispatcher, Src theConsole) {
-        this.dispatcher = dispatcher;
-        this.theConsole = theConsole;
+        this(new ConsoleParseCache<>(dispatcher, theConsole));
+    }
+
+    /**
+     * @param parseCache cache shared with the {@link BrigadierCompleter} of the console
+     */
+    public BrigadierHighlighter(ConsoleParseCache<Src> parseCache) {
+        this.parseCache = parseCache;
     }
 
     @Override
@@ -41,43 +45,41 @@ public class BrigadierHighlighter<Src> implements Highlighter {
             return AttributedString.EMPTY;
         }
 
-        ParsedResults<Src> results = dispatcher.parse(buffer, theConsole);
+        ValidationResult<Src> validation = parseCache.validate(buffer);
 
         int components = 0;
         int pos = 0;
         AttributedStringBuilder builder = new AttributedStringBuilder();
 
-        CommandContextBuilder<Src> context = results.context;
-        while (context != null) {
-            for (ParsedCommandNode<Src> node : context.getNodes()) {
-                if (node.range.start >= buffer.length()) break;
+        CommandNode<Src> previous = null;
+        for (ValidationResult.Segment<Src> segment : validation.segments) {
+            if (segment.range.start >= buffer.length()) break;
+            // A redirect starts a new context
+            if (previous != null && previous.getRedirect() != null) components = 0;
+            previous = segment.node;
 
-                final int start = node.range.start;
-                final int end = node.range.end;
+            final int start = segment.range.start;
+            final int end = segment.range.end;
 
-                if (start > pos) {
-                    builder.style(AttributedStyle.DEFAULT);
-                    builder.append(buffer, pos, start);
-                }
+            if (start > pos) {
+                builder.style(AttributedStyle.DEFAULT);
+                builder.append(buffer, pos, start);
+            }
 
-                if (node.node instanceof LiteralCommandNode) {
-                    builder.style(AttributedStyle.DEFAULT);
-                    builder.append(buffer, start, end);
-                } else {
-                    builder.style(AttributedStyle.DEFAULT.foreground(COLORS[components]));
-                    builder.append(buffer, start, end);
+            if (segment.kind == ValidationResult.Kind.LITERAL) {
+                builder.style(AttributedStyle.DEFAULT);
+                builder.append(buffer, start, end);
+            } else {
+                builder.style(AttributedStyle.DEFAULT.foreground(COLORS[components]));
+                builder.append(buffer, start, end);
 
-                    if (node.node instanceof ArgumentCommandNode) {
-                        if (++components >= COLORS.length) {
-                            components = 0;
-                        }
+                if (segment.kind == ValidationResult.Kind.ARGUMENT) {
+                    if (++components >= COLORS.length) {
+                        components = 0;
                     }
                 }
-                pos = end;
             }
-
-            components = 0;
-            context = context.getChild();
+            pos = end;
         }
 
         if (pos < buffer.length()) {
@@ -85,7 +87,9 @@ public class BrigadierHighlighter<Src> implements Highlighter {
             builder.append(buffer, pos, buffer.length());
         }
 
-        if (results.reader.canRead() || (results.exceptions != null && !results.exceptions.isEmpty())) {
+        if (!validation.isValid()) {
+            // Only a failed line is parsed, for the message of its exceptions
+            ParsedResults<Src> results = parseCache.parse(buffer);
 
             String message;
 
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.console;
+
+import com.kasukusakura.brigadier.command.CommandDispatcher;
+import com.kasukusakura.brigadier.command.ParsedResults;
+import com.kasukusakura.brigadier.command.ValidationResult;
+import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
+import com.kasukusakura.brigadier.command.context.ParsedCommandNode;
+import com.kasukusakura.brigadier.command.suggestion.SuggestionInterpreter;
+import com.kasukusakura.brigadier.command.tree.CommandNode;
+import com.kasukusakura.brigadier.command.tree.LiteralCommandNode;
+import com.kasukusakura.brigadier.reader.AnyValueReader;
+
+import java.util.List;
+
+/**
+ * Parse results of the console line, shared by the {@link BrigadierCompleter} and the {@link BrigadierHighlighter}.
+ * <p>
+ * An unchanged line reuses the last results. When the line grew after a checkpoint, parsing resumes
+ * from the node of the checkpoint instead of the root. A checkpoint is a line ending with the splitter after a node,
+ * reached through nodes with no alternative: literals, or arguments being the only child of their parent.
+ * <p>
+ * The results are shared, callers must not execute them or move their reader.
+ */
+public class ConsoleParseCache<Src> {
+    public final CommandDispatcher<Src> dispatcher;
+    private final Src source;
+
+    private String lastLine;
+    private ParsedResults<Src> lastResults;
+    private long lastTreeVersion;
+
+    private String checkpointLine;
+    private CommandNode<Src> checkpointNode;
+    private CommandContextBuilder<Src> checkpointContext;
+    private long checkpointTreeVersion;
+
+    private long reused;
+    private long resumed;
+    private long parsed;
+
+    public ConsoleParseCache(CommandDispatcher<Src> dispatcher, Src source) {
+        this.dispatcher = dispatcher;
+        this.source = source;
+    }
+
+    /**
+     * Validate the line without parsing it, nothing is cached
+     *
+     * @see CommandDispatcher#validate(String, Object)
+     */
+    public ValidationResult<Src> validate(String line) {
+        return dispatcher.validate(line, source);
+    }
+
+    public synchronized ParsedResults<Src> parse(String line) {
+        long treeVersion = dispatcher.root.treeVersion();
+        if (line.equals(lastLine) && treeVersion == lastTreeVersion) {
+            reused++;
+            return lastResults;
+        }
+
+        ParsedResults<Src> results;
+        if (checkpointLine != null
+                && checkpointTreeVersion == treeVersion
+                && line.startsWith(checkpointLine)
+                && line.length() <= dispatcher.maxInputLength
+        ) {
+            AnyValueReader reader = new AnyValueReader(line);
+            // Sinks are initialized by reading, a fresh reader can't seek forward
+            while (reader.getCursor() < checkpointLine.length()) reader.readChar();
+            results = dispatcher.parse(checkpointNode, reader, checkpointContext.copy());
+            resumed++;
+        } else {
+            results = dispatcher.parse(line, source);
+            parsed++;
+        }
+
+        lastLine = line;
+        lastResults = results;
+        lastTreeVersion = treeVersion;
+        updateCheckpoint(line, results, treeVersion);
+        return results;
+    }
+
+    private void updateCheckpoint(String line, ParsedResults<Src> results, long treeVersion) {
+        CommandContextBuilder<Src> context = results.context;
+        List<ParsedCommandNode<Src>> nodes = context.getNodes();
+        if (context.getChild() != null || nodes.isEmpty()) return;
+
+        ParsedCommandNode<Src> last = nodes.get(nodes.size() - 1);
+        int end = last.range.end;
+        if (results.reader.getCursor() != end + 1 || end >= line.length() || !Character.isWhitespace(line.charAt(end))) return;
+        if (last.node.getRedirect() != null || !isCommitted(nodes)) return;
+
+        checkpointLine = line;
+        checkpointNode = last.node;
+        checkpointContext = context.copy();
+        checkpointTreeVersion = treeVersion;
+    }
+
+    /**
+     * @return whether a longer line is parsed the same way up to the last node
+     */
+    private boolean isCommitted(List<ParsedCommandNode<Src>> nodes) {
+        CommandNode<Src> parent = dispatcher.rootFor(source);
+        for (ParsedCommandNode<Src> parsed : nodes) {
+            CommandNode<Src> node = parsed.node;
+            if (node instanceof SuggestionInterpreter) return false;
+            if (!(node instanceof LiteralCommandNode) && parent.getChildren().size() != 1) return false;
+            parent = node;
+        }
+        return true;
+    }
+
+    public synchronized void invalidate() {
+        lastLine = null;
+        lastResults = null;
+        checkpointLine = null;
+        checkpointNode = null;
+        checkpointContext = null;
+    }
+
+    /**
+     * @return count of lines answered with the last results
+     */
+    public synchronized long reused() {
+        return reused;
+    }
+
+    /**
+     * @return count of lines parsed from a checkpoint
+     */
+    public synchronized long resumed() {
+        return resumed;
+    }
+
+    /**
+     * @return count of lines parsed from the root
+     */
+    public synchronized long parsed() {
+        return parsed;
+    }
+}
@@ -5,16 +5,42 @@
 
 package com.kasukusakura.brigadier.command;
 
+import com.kasukusakura.brigadier.command.arguments.ArgumentType;
+import com.kasukusakura.brigadier.command.arguments.DoubleArgumentType;
 import com.kasukusakura.brigadier.command.arguments.EnumArgumentType;
+import com.kasukusakura.brigadier.command.arguments.IntegerArgumentType;
 import com.kasukusakura.brigadier.command.arguments.ReadAnyArgumentType;
 import com.kasukusakura.brigadier.command.arguments.StringArgumentType;
 import com.kasukusakura.brigadier.command.builder.LiteralCommandNodeBuilder;
+import com.kasukusakura.brigadier.command.cache.CachingArgumentType;
+import com.kasukusakura.brigadier.command.cache.ParseResultCache;
+import com.kasukusakura.brigadier.command.cache.RequirementCache;
+import com.kasukusakura.brigadier.command.cache.TreeViewCache;
 import com.kasukusakura.brigadier.command.context.CommandContext;
+import com.kasukusakura.brigadier.command.context.CommandContextBuilder;
+import com.kasukusakura.brigadier.command.context.StringRange;
 import com.kasukusakura.brigadier.command.exceptions.CommandSyntaxException;
+import com.kasukusakura.brigadier.command.exceptions.ParseBudgetExceededException;
+import com.kasukusakura.brigadier.command.suggestion.SuggestionRanking;
+import com.kasukusakura.brigadier.command.suggestion.Suggestions;
+import com.kasukusakura.brigadier.command.suggestion.SuggestionsBuilder;
+import com.kasukusakura.brigadier.command.tree.AdaptiveArgumentOrder;
+import com.kasukusakura.brigadier.command.tree.ArgumentCommandNode;
+import com.kasukusakura.brigadier.command.tree.LiteralCommandNode;
 import com.kasukusakura.brigadier.reader.AnyValueReader;
 import org.junit.jupiter.api.*;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
 @SuppressWarnings("CodeBlock2Expr")
 public class DispatcherTest {
@@ -69,6 +95,92 @@ public class DispatcherTest {
             Assertions.assertEquals(Set.of(), suggest("args", -1));
         }
 
+        @Test
+        void assertLimit() {
+            var parsed = dispatcher.parse(new AnyValueReader("args "), this);
+            var sgs = dispatcher.getCompletionSuggestions(parsed, 5, 3).join();
+            Assertions.assertEquals(List.of("e1", "e2", "e3"), sgs.suggestions.stream().map(s -> s.text).toList());
+
+            parsed = dispatcher.parse(new AnyValueReader(""), this);
+            sgs = dispatcher.getCompletionSuggestions(parsed, 0, 2).join();
+            Assertions.assertEquals(List.of("args", "child"), sgs.suggestions.stream().map(s -> s.text).toList());
+        }
+
+        @Test
+        void assertDeadline() {
+            var slow = new AtomicReference<>(new CompletableFuture<Suggestions>());
+            var local = new CommandDispatcher<>();
+            local.registerBuilder().literal("fast").build();
+            local.registerBuilder().literal("slow")
+                    .addArgument(arg -> arg.name("v").type(new ArgumentType<Object>() {
+                        @Override
+                        public Object parse(CommandContextBuilder<?> context, AnyValueReader reader) {
+                            return reader.readAny();
+                        }
+
+                        @Override
+                        public <S> CompletableFuture<Suggestions> listSuggestions(CommandContextBuilder<S> context, SuggestionsBuilder builder) {
+                            return slow.get();
+                        }
+                    }))
+                    .build();
+
+            var parsed = local.parse(new AnyValueReader("slow "), this);
+            var sgs = local.getCompletionSuggestions(parsed, 5, 10, 50, TimeUnit.MILLISECONDS).join();
+            Assertions.assertEquals(List.of(), sgs.suggestions);
+            Assertions.assertTrue(slow.get().isCancelled());
+
+            // A provider already running on the executor is cancelled too
+            var executor = Executors.newSingleThreadExecutor();
+            try {
+                local.suggestionExecutor = executor;
+                slow.set(new CompletableFuture<>());
+                sgs = local.getCompletionSuggestions(parsed, 5, 10, 50, TimeUnit.MILLISECONDS).join();
+                Assertions.assertEquals(List.of(), sgs.suggestions);
+                Assertions.assertTrue(slow.get().isCancelled());
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        @Test
+        void assertCachingType() {
+            var loads = new AtomicInteger();
+            var pending = new CompletableFuture<Void>();
+            var type = new CachingArgumentType<>(new ArgumentType<Object>() {
+                @Override
+                public Object parse(CommandContextBuilder<?> context, AnyValueReader reader) {
+                    return reader.readAny();
+                }
+
+                @Override
+                public <S> CompletableFuture<Suggestions> listSuggestions(CommandContextBuilder<S> context, SuggestionsBuilder builder) {
+                    loads.incrementAndGet();
+                    return pending.thenApply(v -> {
+                        for (String s : new String[]{"alpha", "alps", "beta"}) {
+                            if (s.startsWith(builder.remainingAsStringLowercase)) builder.suggest(s);
+                        }
+                        return builder.build();
+                    });
+                }
+            }, 16, 1, TimeUnit.MINUTES, source -> source);
+            var local = new CommandDispatcher<>();
+            local.registerBuilder().literal("c").addArgument(arg -> arg.name("v").type(type)).build();
+
+            var first = local.getCompletionSuggestions(local.parse(new AnyValueReader("c a"), this), 3);
+            var second = local.getCompletionSuggestions(local.parse(new AnyValueReader("c a"), this), 3);
+            pending.complete(null);
+            Assertions.assertEquals(List.of("alpha", "alps"), first.join().suggestions.stream().map(s -> s.text).toList());
+            Assertions.assertEquals(List.of("alpha", "alps"), second.join().suggestions.stream().map(s -> s.text).toList());
+
+            var longer = local.getCompletionSuggestions(local.parse(new AnyValueReader("c alph"), this), 6).join();
+            Assertions.assertEquals(List.of("alpha"), longer.suggestions.stream().map(s -> s.text).toList());
+            Assertions.assertEquals(Integer.valueOf(1), Integer.valueOf(loads.get()));
+
+            local.getCompletionSuggestions(local.parse(new AnyValueReader("c a"), new Object()), 3).join();
+            Assertions.assertEquals(Integer.valueOf(2), Integer.valueOf(loads.get()));
+        }
+
         @Test
         void assertEnumMap() {
             Assertions.assertEquals(Set.of("s1", "s2", "s3", "s4", "e1", "e2", "e3", "e4"), suggest("args ", -1));
@@ -78,6 +190,95 @@ public class DispatcherTest {
             Assertions.assertEquals(Set.of(), suggest("args e5", -1));
         }
 
+        @Test
+        void assertEnumConstants() {
+            var local = new CommandDispatcher<>();
+            var mode = new ArrayList<TimeUnit>();
+            local.registerBuilder().literal("unit")
+                    .addArgument(arg -> arg.name("u").type(EnumArgumentType.ofEnum(TimeUnit.class)).command(ctx -> {
+                        mode.add(ctx.getArgument("u", TimeUnit.class));
+                    }))
+                    .build();
+
+            local.execute("unit Seconds", this);
+            Assertions.assertEquals(List.of(TimeUnit.SECONDS), mode);
+            Assertions.assertThrows(CommandSyntaxException.class, () -> local.execute("unit second", this));
+
+            var sgs = local.getCompletionSuggestions(local.parse(new AnyValueReader("unit mi"), this), 7).join();
+            Assertions.assertEquals(List.of("MICROSECONDS", "MILLISECONDS", "MINUTES"), sgs.suggestions.stream().map(s -> s.text).toList());
+        }
+
+        @Test
+        void assertFuzzy() {
+            var local = new CommandDispatcher<>();
+            for (String name : new String[]{"teleport", "tell", "help", "hello"}) {
+                local.registerBuilder().literal(name).command(ctx -> {
+                }).build();
+            }
+            local.registerBuilder().literal("unit")
+                    .addArgument(arg -> arg.name("u").type(EnumArgumentType.ofEnum(TimeUnit.class)))
+                    .build();
+
+            var sgs = local.getCompletionSuggestions(local.parse(new AnyValueReader("telleport"), this), 9).join();
+            Assertions.assertEquals(List.of(), sgs.suggestions);
+            var plain = Assertions.assertThrows(CommandSyntaxException.class, () -> local.execute("halp", this));
+            Assertions.assertFalse(plain.getMessage().contains("Did you mean"), plain.getMessage());
+
+            local.fuzzyMatchDistance = 2;
+            sgs = local.getCompletionSuggestions(local.parse(new AnyValueReader("telleport"), this), 9).join();
+            Assertions.assertEquals(List.of("teleport"), sgs.suggestions.stream().map(s -> s.text).toList());
+            sgs = local.getCompletionSuggestions(local.parse(new AnyValueReader("unit SECCONDS"), this), 13).join();
+            Assertions.assertEquals(List.of("SECONDS"), sgs.suggestions.stream().map(s -> s.text).toList());
+
+            var error = Assertions.assertThrows(CommandSyntaxException.class, () -> local.execute("halp", this));
+            Assertions.assertTrue(error.getMessage().endsWith("Did you mean: help"), error.getMessage());
+            error = Assertions.assertThrows(CommandSyntaxException.class, () -> local.execute("unit MINUTS", this));
+            Assertions.assertTrue(error.getMessage().endsWith("Did you mean: MINUTES"), error.getMessage());
+        }
+
+        @Test
+        void assertRanking() {
+            var local = new CommandDispatcher<>();
+            local.suggestionRanking = new SuggestionRanking();
+            for (String name : new String[]{"alpha", "beta", "gamma"}) {
+                local.registerBuilder().literal(name).command(ctx -> {
+                }).build();
+            }
+            for (int i = 0; i < 3; i++) local.execute("gamma", this);
+            local.suggestionRanking.recordSelection("beta");
+
+            var sgs = local.getCompletionSuggestions(local.parse(new AnyValueReader(""), this), 0).join();
+            Assertions.assertEquals(List.of("gamma", "beta", "alpha"), sgs.suggestions.stream().map(s -> s.text).toList());
+            sgs = local.getCompletionSuggestions(local.parse(new AnyValueReader(""), this), 0, 1).join();
+            Assertions.assertEquals(List.of("gamma"), sgs.suggestions.stream().map(s -> s.text).toList());
+
+            local.registerBuilder().literal("say").register(
+                    local.newArgument().name("text").type(ReadAnyArgumentType.INSTANCE).command(ctx -> {
+                    }).build()
+            ).build();
+            local.execute("say secret", this);
+            Assertions.assertEquals(1, local.suggestionRanking.frequency("say"));
+            Assertions.assertEquals(0, local.suggestionRanking.frequency("secret"));
+        }
+
+        @Test
+        void assertSession() {
+            var session = new SuggestionSession<>(dispatcher);
+            var delta = session.suggest("c", 1, this).join();
+            Assertions.assertFalse(delta.filtered);
+            Assertions.assertEquals(List.of("child", "command1", "command2"), delta.added.stream().map(s -> s.text).toList());
+
+            delta = session.suggest("com", 3, this).join();
+            Assertions.assertTrue(delta.filtered);
+            Assertions.assertEquals(List.of(), delta.added);
+            Assertions.assertEquals(List.of("child"), delta.removed.stream().map(s -> s.text).toList());
+
+            delta = session.suggest("command2", 8, this).join();
+            Assertions.assertFalse(delta.filtered);
+            Assertions.assertEquals(List.of("command1", "command2"), delta.removed.stream().map(s -> s.text).toList());
+            Assertions.assertEquals(List.of(), session.current().suggestions);
+        }
+
         @Test
         void assertChildSuggest() {
             Assertions.assertEquals(Set.of(), suggest("child", -1));
@@ -342,6 +543,706 @@ public class DispatcherTest {
         }
     }
 
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class AdaptiveArgumentOrderTest {
+        CommandDispatcher<Object> dispatcher = new CommandDispatcher<>();
+        LiteralCommandNode<Object> cmd;
+
+        @BeforeAll
+        void init() {
+            dispatcher.adaptiveArgumentOrder = new AdaptiveArgumentOrder(1, 0.5, true);
+            cmd = dispatcher.registerBuilder()
+                    .literal("cmd")
+                    .addArgument(arg -> arg.name("a").type(new EnumArgumentType<>(List.of("a1", "a2"))).command(s -> {
+                    }))
+                    .addArgument(arg -> arg.name("b").type(new EnumArgumentType<>(List.of("b1", "b2"))).command(s -> {
+                    }))
+                    .build();
+        }
+
+        private String first() {
+            return cmd.getRelevantNodes(new AnyValueReader("x"), dispatcher.adaptiveArgumentOrder).iterator().next().getName();
+        }
+
+        @Test
+        void testReorder() {
+            for (int i = 0; i < 4; i++) dispatcher.execute("cmd b1", this);
+            Assertions.assertEquals("b", first());
+
+            for (int i = 0; i < 8; i++) dispatcher.execute("cmd a2", this);
+            Assertions.assertEquals("a", first());
+        }
+    }
+
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class ContextCopyTest {
+        CommandDispatcher<Object> dispatcher = new CommandDispatcher<>();
+        LiteralCommandNode<Object> first, second, third;
+
+        @BeforeAll
+        void init() {
+            first = dispatcher.registerBuilder().literal("first").build();
+            second = dispatcher.registerBuilder().literal("second").build();
+            third = dispatcher.registerBuilder().literal("third").build();
+        }
+
+        private CommandContextBuilder<Object> newContext() {
+            return CommandContextBuilder.newBuilder(dispatcher, this, dispatcher.root, 0)
+                    .withNode(first, StringRange.between(0, 5))
+                    .withMetadata("key", String.class, "parent");
+        }
+
+        @Test
+        void testAppendToCopy() {
+            var parent = newContext();
+            var copy = parent.copy()
+                    .withNode(second, StringRange.between(6, 12))
+                    .withMetadata("other", String.class, "copy");
+
+            Assertions.assertEquals(1, parent.getNodes().size());
+            Assertions.assertEquals(1, parent.getAllMetadata().size());
+            Assertions.assertEquals(null, parent.getMetadata("other", null));
+            Assertions.assertEquals(2, copy.getNodes().size());
+            Assertions.assertSame(first, copy.getNodes().get(0).node);
+            Assertions.assertSame(second, copy.getNodes().get(1).node);
+            Assertions.assertEquals("copy", copy.getMetadata("other", null));
+        }
+
+        @Test
+        void testAppendToParent() {
+            var parent = newContext();
+            var copy = parent.copy();
+            parent.withNode(second, StringRange.between(6, 12)).withArgument("arg", String.class, "parent");
+            copy.withNode(third, StringRange.between(6, 11));
+
+            Assertions.assertSame(second, parent.getNodes().get(1).node);
+            Assertions.assertSame(third, copy.getNodes().get(1).node);
+            Assertions.assertEquals(2, copy.getNodes().size());
+            Assertions.assertEquals(null, copy.getArgument("arg", null));
+
+            var child = parent.newBuilderForChild(dispatcher, this, dispatcher.root, 13)
+                    .withMetadata("child", String.class, "child");
+            Assertions.assertEquals(2, child.getAllMetadata().size());
+            Assertions.assertEquals(1, parent.getAllMetadata().size());
+        }
+
+        @Test
+        void testOldestMatchFirst() {
+            var parent = newContext().withArgument("arg", String.class, "parent");
+            var copy = parent.copy()
+                    .withMetadata("key", String.class, "copy")
+                    .withArgument("arg", String.class, "copy");
+
+            Assertions.assertEquals("parent", copy.getMetadata("key", null));
+            Assertions.assertEquals("parent", copy.getMetadata(null, String.class));
+            Assertions.assertEquals("parent", copy.getArgument("arg", null));
+            Assertions.assertEquals("copy", copy.getAllMetadata().get(1).value);
+        }
+
+        @Test
+        void testUnmodifiableViews() {
+            var context = newContext();
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> context.getNodes().clear());
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> context.getAllMetadata().remove(0));
+        }
+    }
+
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class ArgumentSlotTest {
+        CommandDispatcher<Object> dispatcher = new CommandDispatcher<>();
+        ArgumentCommandNode<Object, Integer> count;
+        ArgumentCommandNode<Object, Double> scale;
+        CommandContext<Object> lastContext;
+
+        @BeforeAll
+        void init() {
+            scale = dispatcher.newArgument().name("scale").type(DoubleArgumentType.INSTANCE)
+                    .command(s -> lastContext = s)
+                    .build();
+            count = dispatcher.newArgument().name("count").type(new IntegerArgumentType(0, 64))
+                    .register(scale)
+                    .build();
+            dispatcher.registerBuilder()
+                    .literal("give")
+                    .addArgument(arg -> arg.name("item").type(StringArgumentType.INSTANCE).register(count))
+                    .build();
+        }
+
+        @Test
+        void testSlots() {
+            dispatcher.execute("give stone 12 0.5", this);
+
+            Assertions.assertEquals(1, count.getSlot());
+            Assertions.assertEquals(2, scale.getSlot());
+            Assertions.assertEquals(12, lastContext.getInt(count));
+            Assertions.assertEquals(0.5, lastContext.getDouble(scale));
+            Assertions.assertEquals(12, lastContext.getInt("count"));
+            Assertions.assertEquals(Integer.valueOf(12), lastContext.getArgument("count", Integer.class));
+            Assertions.assertEquals("stone", lastContext.getArgument("item", null));
+
+            Assertions.assertThrows(CommandSyntaxException.class, () -> {
+                dispatcher.execute("give stone 65 0.5", this);
+            });
+        }
+
+        @Test
+        void testPrimitiveConversion() {
+            dispatcher.execute("give stone 12 2.75", this);
+
+            Assertions.assertEquals(2L, lastContext.getLong("scale"));
+            Assertions.assertEquals(2, lastContext.getInt("scale"));
+            Assertions.assertEquals(12.0, lastContext.getDouble("count"));
+        }
+    }
+
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class ParseLimitTest {
+        CommandDispatcher<Object> dispatcher = new CommandDispatcher<>();
+
+        @BeforeAll
+        void init() {
+            dispatcher.registerBuilder().literal("run").command(s -> {
+            }).build();
+            dispatcher.registerBuilder().literal("execute").redirect(dispatcher.root).build();
+        }
+
+        @Test
+        void testDeepRedirect() {
+            var command = "execute ".repeat(5000) + "run";
+
+            try {
+                dispatcher.maxParseDepth = 10000;
+                dispatcher.execute(command, this);
+
+                dispatcher.maxParseDepth = 100;
+                Assertions.assertThrows(CommandSyntaxException.class, () -> dispatcher.execute(command, this));
+                dispatcher.execute("execute ".repeat(50) + "run", this);
+            } finally {
+                dispatcher.maxParseDepth = 1024;
+            }
+        }
+
+        @Test
+        void testParseBudget() {
+            dispatcher.parseBudget = new ParseBudget(200, 200, Long.MAX_VALUE);
+            try {
+                dispatcher.execute("execute ".repeat(10) + "run", this);
+                var exception = Assertions.assertThrows(ParseBudgetExceededException.class, () -> {
+                    dispatcher.parse("execute ".repeat(500) + "run", this);
+                });
+                Assertions.assertEquals(ParseBudget.Limit.NODE_ATTEMPTS, exception.limit);
+                Assertions.assertEquals(2, dispatcher.parseBudgetStatistics.parses());
+                Assertions.assertEquals(1, dispatcher.parseBudgetStatistics.aborted());
+
+                // Literals that cannot match are rejected without copying the reader
+                dispatcher.parse("execute ".repeat(10) + "nothing", this);
+                var statistics = dispatcher.parseBudgetStatistics;
+                Assertions.assertTrue(statistics.total(ParseBudget.Limit.READER_COPIES) < statistics.total(ParseBudget.Limit.NODE_ATTEMPTS));
+            } finally {
+                dispatcher.parseBudget = null;
+            }
+        }
+
+        @Test
+        void testInputLength() {
+            dispatcher.maxInputLength = 64;
+            try {
+                dispatcher.execute("execute run", this);
+                Assertions.assertThrows(CommandSyntaxException.class, () -> dispatcher.execute("execute ".repeat(10) + "run", this));
+            } finally {
+                dispatcher.maxInputLength = Integer.MAX_VALUE;
+            }
+        }
+    }
+
+    @Test
+    void testParseAll() {
+        var dispatcher = new CommandDispatcher<>();
+        dispatcher.registerBuilder().literal("n")
+                .addArgument(arg -> arg.name("v").type(IntegerArgumentType.INSTANCE).command(s -> {
+                }))
+                .build();
+
+        var inputs = new ArrayList<String>();
+        for (int i = 0; i < 2000; i++) inputs.add(i % 7 == 0 ? "n x" : "n " + i);
+
+        var results = dispatcher.parseAll(inputs, new Object());
+        for (int i = 0; i < inputs.size(); i++) {
+            var context = results.get(i).context.getLastChild();
+            if (i % 7 == 0) {
+                Assertions.assertFalse(results.get(i).exceptions == null || results.get(i).exceptions.isEmpty());
+            } else {
+                Assertions.assertEquals(i, context.getInt("v"));
+            }
+        }
+    }
+
+    @Test
+    void testParseAllWithOtherTreeChanged() {
+        var other = new CommandDispatcher<>();
+        var built = new AtomicInteger();
+        var dispatcher = new CommandDispatcher<>();
+        dispatcher.registerBuilder().literal("n")
+                .preprocessedHandler(context -> {
+                    // Changes of another tree and unregistered nodes while parsing
+                    synchronized (other) {
+                        other.registerBuilder().literal("o" + built.incrementAndGet()).build();
+                    }
+                    new LiteralCommandNodeBuilder<>().literal("unused").build();
+                    return null;
+                })
+                .build();
+
+        var results = dispatcher.parseAll(Collections.nCopies(200, "n"), new Object());
+        Assertions.assertEquals(200, results.size());
+        Assertions.assertEquals(200, built.get());
+
+        dispatcher.registerBuilder().literal("m")
+                .preprocessedHandler(context -> {
+                    dispatcher.registerBuilder().literal("m" + built.incrementAndGet()).build();
+                    return null;
+                })
+                .build();
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> dispatcher.parseAll(List.of("m"), new Object()));
+    }
+
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class ParseCacheTest {
+        CommandDispatcher<Object> dispatcher = new CommandDispatcher<>();
+        List<Object> sources = new ArrayList<>();
+
+        @BeforeAll
+        void init() {
+            dispatcher.parseCache = new ParseResultCache<>(16, s -> "everyone");
+            dispatcher.registerBuilder()
+                    .literal("say")
+                    .addArgument(arg -> arg.name("msg").type(StringArgumentType.INSTANCE).command(s -> sources.add(s.getSource())))
+                    .build();
+        }
+
+        @Test
+        void testCache() {
+            var s1 = new Object();
+            var s2 = new Object();
+            dispatcher.execute("say hi", s1);
+            dispatcher.execute("say hi", s2);
+            Assertions.assertEquals(List.of(s1, s2), sources);
+            Assertions.assertEquals(1, dispatcher.parseCache.hits());
+
+            Assertions.assertThrows(CommandSyntaxException.class, () -> dispatcher.execute("sa hi", s1));
+            Assertions.assertThrows(CommandSyntaxException.class, () -> dispatcher.execute("say hi hi", s1));
+            Assertions.assertEquals(1, dispatcher.parseCache.size());
+
+            // Nodes never registered into the tree keep the cache
+            new LiteralCommandNodeBuilder<>().literal("unused").build();
+            dispatcher.execute("say hi", s1);
+            Assertions.assertEquals(2, dispatcher.parseCache.hits());
+
+            dispatcher.registerBuilder().literal("other").build();
+            dispatcher.execute("say hi", s1);
+            Assertions.assertEquals(2, dispatcher.parseCache.hits());
+            Assertions.assertEquals(1, dispatcher.parseCache.size());
+        }
+
+        @Test
+        void testTreeVersions() {
+            var cache = new ParseResultCache<Object>(64, s -> "everyone");
+            var results = dispatcher.parse(new AnyValueReader("say hi"), this);
+            cache.put("say hi", this, 5, results);
+            // Results of an older tree are ignored
+            cache.put("say old", this, 4, results);
+            Assertions.assertEquals(1, cache.size());
+            Assertions.assertEquals(null, cache.get("say hi", this, 4));
+            Assertions.assertEquals(1, cache.size());
+
+            Assertions.assertEquals("hi", cache.get("say hi", this, 5).context.getLastChild().getArgument("msg", null));
+            Assertions.assertEquals(null, cache.get("say hi", this, 6));
+            Assertions.assertEquals(0, cache.size());
+        }
+    }
+
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class RequirementMemoTest {
+        CommandDispatcher<Object> dispatcher = new CommandDispatcher<>();
+        int tests;
+
+        @BeforeAll
+        void init() {
+            Predicate<Object> admin = s -> {
+                tests++;
+                return true;
+            };
+            dispatcher.registerBuilder()
+                    .literal("admin").requirement(admin)
+                    .addLiteral(sub -> sub.literal("kick").requirement(admin).command(s -> {
+                    }))
+                    .addLiteral(sub -> sub.literal("ban").requirement(admin).command(s -> {
+                    }))
+                    .build();
+        }
+
+        @Test
+        void testMemo() {
+            var source = new Object();
+            dispatcher.execute("admin kick", source);
+            Assertions.assertEquals(1, tests);
+
+            dispatcher.renderHelpUsage(dispatcher.root, source);
+            Assertions.assertEquals(2, tests);
+
+            dispatcher.requirementCache = new RequirementCache<>(16, 1, TimeUnit.MINUTES, s -> s);
+            dispatcher.execute("admin ban", source);
+            dispatcher.execute("admin kick", source);
+            Assertions.assertEquals(3, tests);
+
+            dispatcher.requirementCache.invalidate(source);
+            dispatcher.execute("admin kick", source);
+            Assertions.assertEquals(4, tests);
+        }
+    }
+
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class PermissionRequirementTest {
+        static final long USE = 1, ADMIN = 2;
+        CommandDispatcher<Object> dispatcher = new CommandDispatcher<>();
+        PermissionMaskSource user = () -> USE;
+        PermissionMaskSource admin = () -> USE | ADMIN;
+
+        @BeforeAll
+        void init() {
+            dispatcher.registerBuilder()
+                    .literal("server").permission(USE)
+                    .addLiteral(sub -> sub.literal("stop").permission(ADMIN).command(s -> {
+                    }))
+                    .addLiteral(sub -> sub.literal("restart").permission(ADMIN).command(s -> {
+                    }))
+                    .build();
+            dispatcher.registerBuilder().literal("list").permission(USE).command(s -> {
+            }).build();
+        }
+
+        @Test
+        void testPermission() {
+            dispatcher.execute("server stop", admin);
+            Assertions.assertThrows(CommandSyntaxException.class, () -> dispatcher.execute("server stop", user));
+
+            var server = dispatcher.root.getChild("server");
+            Assertions.assertEquals(USE | ADMIN, server.getPermissionBits());
+            Assertions.assertEquals(USE, dispatcher.root.getPermissionBits());
+
+            Assertions.assertEquals("list\n", dispatcher.renderHelpUsage(dispatcher.root, user).toString());
+            Assertions.assertEquals(List.of("list"), dispatcher.getCompletionSuggestions(dispatcher.parse("", user), 0).join().suggestions.stream().map(s -> s.text).toList());
+        }
+
+        @Test
+        void testDirectCheckIgnoresResolver() {
+            var local = new CommandDispatcher<Object>();
+            local.permissionMask = s -> USE | ADMIN;
+            local.registerBuilder().literal("stop").permission(ADMIN).command(s -> {
+            }).build();
+            var stop = local.root.getChild("stop");
+
+            local.execute("stop", "console");
+            Assertions.assertTrue(local.newRequirementMemo("console").test(stop));
+            Assertions.assertFalse(stop.getRequirement().test("console"));
+            Assertions.assertTrue(stop.getRequirement().test(admin));
+        }
+    }
+
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class TreeViewTest {
+        CommandDispatcher<Object> dispatcher = new CommandDispatcher<>();
+        ArgumentCommandNode<Object, Integer> amount;
+        int tests;
+        int lastAmount;
+        CommandContext<Object> lastContext;
+
+        @BeforeAll
+        void init() {
+            dispatcher.treeViews = new TreeViewCache<>(8, s -> s);
+            amount = dispatcher.newArgument().name("amount").type(IntegerArgumentType.INSTANCE)
+                    .command(s -> {
+                        lastAmount = s.getInt(amount);
+                        lastContext = s;
+                    })
+                    .build();
+            dispatcher.registerBuilder()
+                    .literal("pay")
+                    .requirement(s -> {
+                        tests++;
+                        return s.equals("admin");
+                    })
+                    .register(amount)
+                    .build();
+            dispatcher.registerBuilder().literal("again").redirect(dispatcher.root).build();
+        }
+
+        @Test
+        void testView() {
+            dispatcher.execute("pay 5", "admin");
+            dispatcher.execute("again pay 7", "admin");
+            Assertions.assertEquals(7, lastAmount);
+            Assertions.assertThrows(CommandSyntaxException.class, () -> dispatcher.execute("again pay 7", "user"));
+            Assertions.assertEquals(2, tests);
+
+            Assertions.assertEquals("again  ...\n", dispatcher.renderHelpUsage(dispatcher.root, "user").toString());
+            Assertions.assertEquals(2, tests);
+            Assertions.assertSame(dispatcher.root.getChild("pay"), dispatcher.rootFor("admin").getChild("pay").getOrigin());
+        }
+
+        @Test
+        void testParsedOrigins() {
+            dispatcher.execute("pay 3", "admin");
+            var nodes = lastContext.getNodes();
+            Assertions.assertNotSame(amount, nodes.get(1).node);
+            Assertions.assertSame(dispatcher.root.getChild("pay"), nodes.get(0).getOrigin());
+            Assertions.assertSame(amount, nodes.get(1).getOrigin());
+        }
+    }
+
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class ForkExecutionTest {
+        CommandDispatcher<Object> dispatcher = new CommandDispatcher<>();
+        Set<Object> executed = ConcurrentHashMap.newKeySet();
+
+        @BeforeAll
+        void init() {
+            List<Object> sources = new ArrayList<>();
+            for (int i = 0; i < 100; i++) sources.add(i);
+
+            dispatcher.registerBuilder().literal("run").command(CommandHandler.threadSafe(s -> {
+                if (s.getSource().equals(13)) throw new IllegalStateException("unlucky");
+                executed.add(s.getSource());
+            })).build();
+            dispatcher.registerBuilder().literal("all")
+                    .redirect(dispatcher.root)
+                    .modifier(s -> sources)
+                    .forked()
+                    .build();
+        }
+
+        @Test
+        void testStreaming() {
+            int[] produced = new int[1];
+            dispatcher.registerBuilder().literal("each")
+                    .redirect(dispatcher.root)
+                    .modifier((StreamingRedirectModifier<Object>) s -> new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return produced[0] < 1000;
+                        }
+
+                        @Override
+                        public Object next() {
+                            // The previous source is executed before the next one is produced
+                            Assertions.assertEquals(produced[0], executed.size());
+                            return 1000 + produced[0]++;
+                        }
+                    })
+                    .build();
+
+            executed.clear();
+            var summary = dispatcher.executeWithSummary("each run", this);
+            Assertions.assertEquals(1000, summary.successes);
+        }
+
+        @Test
+        void testParallel() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                for (var ordering : ForkExecution.Ordering.values()) {
+                    executed.clear();
+                    dispatcher.forkExecution = new ForkExecution(executor, 8, ordering);
+
+                    var summary = dispatcher.executeWithSummary("all run", this);
+                    Assertions.assertEquals(99, summary.successes);
+                    Assertions.assertEquals(1, summary.failures);
+                    Assertions.assertEquals(99, executed.size());
+                }
+            } finally {
+                dispatcher.forkExecution = null;
+                executor.shutdown();
+            }
+
+            var summary = dispatcher.executeWithSummary("all run", this);
+            Assertions.assertEquals(99, summary.successes);
+            Assertions.assertThrows(IllegalStateException.class, () -> dispatcher.execute("run", 13));
+            // Without a summary, failures of forked contexts are thrown
+            Assertions.assertThrows(IllegalStateException.class, () -> dispatcher.execute("all run", this));
+        }
+
+        @Test
+        void testParallelFailureSkipsPending() {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                executed.clear();
+                dispatcher.forkExecution = new ForkExecution(executor, 8, ForkExecution.Ordering.LEVEL_BARRIER);
+                Assertions.assertThrows(IllegalStateException.class, () -> dispatcher.execute("all run", this));
+                // Sources after the failing one are not started
+                Assertions.assertEquals(13, executed.size());
+            } finally {
+                dispatcher.forkExecution = null;
+                executor.shutdown();
+            }
+        }
+
+        @Test
+        void testThreadSafeWrapper() throws Exception {
+            var async = CommandHandler.threadSafe((AsyncCommandHandler<Object>) s -> null);
+            Assertions.assertTrue(async instanceof AsyncCommandHandler);
+            Assertions.assertTrue(async.isThreadSafe());
+
+            List<String> calls = new ArrayList<>();
+            CommandHandler<Object> parsed = s -> calls.add("parsed");
+            var wrapped = CommandHandler.threadSafe(new CommandHandler<Object>() {
+                @Override
+                public void process(CommandContext<Object> context) {
+                    calls.add("original");
+                }
+
+                @Override
+                public CommandHandler<Object> parse(CommandContext<?> context) {
+                    return parsed;
+                }
+            });
+            var result = wrapped.parse(null);
+            Assertions.assertTrue(result.isThreadSafe());
+            result.process(null);
+            Assertions.assertEquals(List.of("parsed"), calls);
+        }
+    }
+
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class AsyncExecutionTest {
+        CommandDispatcher<Object> dispatcher = new CommandDispatcher<>();
+        CompletableFuture<Void> io = new CompletableFuture<>();
+
+        @BeforeAll
+        void init() {
+            dispatcher.registerBuilder().literal("fetch").command((AsyncCommandHandler<Object>) s -> io).build();
+            dispatcher.registerBuilder().literal("fail").command((AsyncCommandHandler<Object>) s -> {
+                throw dispatcher.newCommandSyntaxException("failed");
+            }).build();
+            dispatcher.registerBuilder().literal("twice")
+                    .redirect(dispatcher.root)
+                    .modifier(s -> List.of(1, 2))
+                    .forked()
+                    .build();
+        }
+
+        @Test
+        void testAsync() {
+            var result = dispatcher.executeAsync("twice fetch", this);
+            Assertions.assertFalse(result.isDone());
+            io.complete(null);
+            Assertions.assertEquals(2, result.join().successes);
+
+            var failed = dispatcher.executeAsync("fail", this);
+            var error = Assertions.assertThrows(CompletionException.class, failed::join);
+            Assertions.assertTrue(error.getCause() instanceof CommandSyntaxException);
+            Assertions.assertTrue(dispatcher.executeAsync("unknown", this).isCompletedExceptionally());
+        }
+
+        @Test
+        void testAsyncStreaming() {
+            List<CompletableFuture<Void>> stages = new ArrayList<>();
+            dispatcher.registerBuilder().literal("wait").command((AsyncCommandHandler<Object>) s -> {
+                var stage = new CompletableFuture<Void>();
+                stages.add(stage);
+                return stage;
+            }).build();
+            dispatcher.registerBuilder().literal("each")
+                    .redirect(dispatcher.root)
+                    .modifier((StreamingRedirectModifier<Object>) s -> List.<Object>of(1, 2).iterator())
+                    .build();
+            dispatcher.registerBuilder().literal("hop").redirect(dispatcher.root).build();
+
+            dispatcher.asyncExecutor = Runnable::run;
+            try {
+                var result = dispatcher.executeAsync("each hop wait", this);
+                // The second source waits for the handler of the first one
+                Assertions.assertEquals(1, stages.size());
+                stages.get(0).complete(null);
+                Assertions.assertEquals(2, stages.size());
+                Assertions.assertFalse(result.isDone());
+                stages.get(1).complete(null);
+                Assertions.assertEquals(2, result.join().successes);
+            } finally {
+                dispatcher.asyncExecutor = null;
+            }
+        }
+    }
+
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class MailboxDispatcherTest {
+        CommandDispatcher<String> dispatcher = new CommandDispatcher<>();
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+        CountDownLatch gate = new CountDownLatch(1);
+
+        @BeforeAll
+        void init() {
+            dispatcher.registerBuilder().literal("seq")
+                    .addArgument(arg -> arg.name("n").type(IntegerArgumentType.INSTANCE).command(s -> {
+                        received.computeIfAbsent(s.getSource(), k -> new ArrayList<>()).add(s.getInt("n"));
+                    }))
+                    .build();
+            dispatcher.registerBuilder().literal("wait").command(s -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }).build();
+        }
+
+        @Test
+        void testOrdering() {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                var mailboxes = new MailboxDispatcher<>(dispatcher, s -> s, 16, MailboxDispatcher.OverflowPolicy.PARK, executor);
+                var futures = new ArrayList<CompletableFuture<ExecutionSummary>>();
+                for (int i = 0; i < 500; i++) {
+                    for (var source : List.of("a", "b", "c")) {
+                        futures.add(mailboxes.submit("seq " + i, source));
+                    }
+                }
+                futures.forEach(CompletableFuture::join);
+
+                for (var source : List.of("a", "b", "c")) {
+                    var values = received.get(source);
+                    Assertions.assertEquals(500, values.size());
+                    for (int i = 0; i < 500; i++) Assertions.assertEquals(Integer.valueOf(i), values.get(i));
+                }
+                Assertions.assertEquals(1500, mailboxes.completedCommands());
+                Assertions.assertEquals(0, mailboxes.queuedCommands());
+
+                var rejecting = new MailboxDispatcher<>(dispatcher, s -> s, 1, MailboxDispatcher.OverflowPolicy.REJECT, executor);
+                var running = rejecting.submit("wait", "d");
+                while (rejecting.queuedCommands() != 0) Thread.onSpinWait();
+                var queued = rejecting.submit("seq 1", "d");
+                var rejected = rejecting.submit("seq 2", "d");
+                Assertions.assertTrue(rejected.isCompletedExceptionally());
+                gate.countDown();
+                running.join();
+                queued.join();
+                Assertions.assertEquals(1, rejecting.rejectedCommands());
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
     @Test
     void testDispatcher() {
         var dispatcher = new CommandDispatcher<>();
@@ -371,4 +1272,101 @@ public class DispatcherTest {
         System.out.println(result);
         dispatcher.execute(result);
     }
+
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class PreparedCommandTest {
+        CommandDispatcher<Object> dispatcher = new CommandDispatcher<>();
+        CommandContext<Object> lastContext;
+
+        @BeforeAll
+        void init() {
+            dispatcher.registerBuilder()
+                    .literal("give")
+                    .addArgument(arg -> arg.name("item").type(StringArgumentType.INSTANCE)
+                            .addArgument(count -> count.name("count").type(new IntegerArgumentType(0, 64))
+                                    .addArgument(scale -> scale.name("scale").type(DoubleArgumentType.INSTANCE)
+                                            .command(s -> lastContext = s)
+                                    )
+                            )
+                    )
+                    .build();
+        }
+
+        @Test
+        void testPrepared() throws CommandSyntaxException {
+            PreparedCommand<Object> command = dispatcher.prepare("give {item} {count} 0.5");
+            Assertions.assertEquals(Arrays.asList("item", "count"), command.getParameterNames());
+
+            dispatcher.execute(command, this, "stone", 12);
+            Assertions.assertEquals(12, lastContext.getInt("count"));
+            Assertions.assertEquals(0.5, lastContext.getDouble("scale"));
+            Assertions.assertEquals("stone", lastContext.getArgument("item", null));
+
+            Assertions.assertThrows(CommandSyntaxException.class, () -> dispatcher.execute(command, this, "stone", 65));
+            Assertions.assertThrows(CommandSyntaxException.class, () -> dispatcher.prepare("take {item}"));
+        }
+    }
+
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class ValidateTest {
+        CommandDispatcher<Object> dispatcher = new CommandDispatcher<>();
+        AtomicInteger preprocessed = new AtomicInteger();
+
+        @BeforeAll
+        void init() {
+            dispatcher.registerBuilder()
+                    .literal("give")
+                    .preprocessedHandler(context -> {
+                        preprocessed.incrementAndGet();
+                        return null;
+                    })
+                    .addArgument(arg -> arg.name("item").type(StringArgumentType.INSTANCE)
+                            .addArgument(count -> count.name("count").type(new IntegerArgumentType(0, 64)).command(s -> {
+                            }))
+                    )
+                    .build();
+            dispatcher.registerBuilder().literal("execute").redirect(dispatcher.root).build();
+        }
+
+        @Test
+        void testValidate() {
+            var result = dispatcher.validate("give stone 12", this);
+            Assertions.assertTrue(result.isValid());
+            Assertions.assertEquals(3, result.segments.size());
+            Assertions.assertEquals(ValidationResult.Kind.LITERAL, result.segments.get(0).kind);
+            Assertions.assertEquals(ValidationResult.Kind.ARGUMENT, result.segments.get(2).kind);
+            Assertions.assertEquals(11, result.segments.get(2).range.start);
+            Assertions.assertEquals(13, result.segments.get(2).range.end);
+
+            result = dispatcher.validate("give stone 99", this);
+            Assertions.assertFalse(result.isValid());
+            Assertions.assertEquals(2, result.segments.size());
+            Assertions.assertEquals(11, result.errorOffset);
+
+            result = dispatcher.validate("gvie stone", this);
+            Assertions.assertEquals(0, result.segments.size());
+            Assertions.assertEquals(0, result.errorOffset);
+
+            Assertions.assertEquals(0, preprocessed.get());
+        }
+
+        @Test
+        void testValidateLimits() {
+            var command = "execute ".repeat(5000) + "give stone 12";
+            try {
+                dispatcher.maxParseDepth = 10000;
+                var result = dispatcher.validate(command, this);
+                Assertions.assertTrue(result.isValid());
+                Assertions.assertEquals(5003, result.segments.size());
+
+                dispatcher.parseBudget = new ParseBudget(200, 200, Long.MAX_VALUE);
+                Assertions.assertThrows(ParseBudgetExceededException.class, () -> dispatcher.validate(command, this));
+            } finally {
+                dispatcher.maxParseDepth = 1024;
+                dispatcher.parseBudget = null;
+            }
+        }
+    }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.command;
+
+import com.kasukusakura.brigadier.command.arguments.DoubleArgumentType;
+import com.kasukusakura.brigadier.command.arguments.IntegerArgumentType;
+import com.kasukusakura.brigadier.command.arguments.StringArgumentType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Throughput of {@link CommandDispatcher#parseAll(List, Object)} from one core to all cores.
+ */
+public class ParseAllBenchmark {
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        var dispatcher = new CommandDispatcher<>();
+        for (int i = 0; i < 50; i++) {
+            dispatcher.registerBuilder()
+                    .literal("cmd" + i)
+                    .addArgument(item -> item.name("item").type(StringArgumentType.INSTANCE)
+                            .addArgument(amount -> amount.name("amount").type(IntegerArgumentType.INSTANCE)
+                                    .addArgument(scale -> scale.name("scale").type(DoubleArgumentType.INSTANCE).command(s -> {
+                                    }))
+                            )
+                    )
+                    .build();
+        }
+
+        List<String> inputs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            inputs.add("cmd" + (i % 50) + " stone " + i + " 0.5");
+        }
+
+        var source = new Object();
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> levels = new ArrayList<>();
+        for (int parallelism = 1; parallelism < cores; parallelism *= 2) levels.add(parallelism);
+        levels.add(cores);
+
+        for (int round = 0; round < 2; round++) { // The first round warms up
+            for (int parallelism : levels) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    long start = System.nanoTime();
+                    pool.submit(() -> dispatcher.parseAll(inputs, source)).get();
+                    long nanos = System.nanoTime() - start;
+                    if (round == 1) {
+                        System.out.printf("%2d cores: %8.1f ms, %10.0f parses/s%n", parallelism, nanos / 1e6, count / (nanos / 1e9));
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.console;
+
+import com.kasukusakura.brigadier.command.CommandDispatcher;
+import com.kasukusakura.brigadier.command.ParsedResults;
+import com.kasukusakura.brigadier.command.arguments.StringArgumentType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class ConsoleParseCacheTest {
+    static List<String> ranges(ParsedResults<?> results) {
+        return results.context.getNodes().stream().map(node -> node.node.getName() + node.range).toList();
+    }
+
+    @Test
+    void testResume() {
+        var console = new Object();
+        var dispatcher = new CommandDispatcher<>();
+        dispatcher.registerBuilder().literal("tp")
+                .addArgument(arg -> arg.name("player").type(StringArgumentType.INSTANCE)
+                        .addArgument(reason -> reason.name("reason").type(StringArgumentType.INSTANCE).command(ctx -> {
+                        }))
+                )
+                .build();
+        var cache = new ConsoleParseCache<>(dispatcher, console);
+
+        cache.parse("tp");
+        cache.parse("tp ");
+        Assertions.assertEquals(2L, cache.parsed());
+
+        for (String line : new String[]{"tp a", "tp al", "tp alice", "tp alice ", "tp alice afk"}) {
+            Assertions.assertEquals(ranges(dispatcher.parse(line, console)), ranges(cache.parse(line)));
+        }
+        Assertions.assertEquals(5L, cache.resumed());
+
+        var results = cache.parse("tp alice afk");
+        Assertions.assertSame(results, cache.parse("tp alice afk"));
+        Assertions.assertEquals(2L, cache.reused());
+        Assertions.assertEquals("afk", results.context.getArgument("reason", String.class));
+
+        cache.parse("tp bob");
+        Assertions.assertEquals(3L, cache.parsed());
+    }
+}
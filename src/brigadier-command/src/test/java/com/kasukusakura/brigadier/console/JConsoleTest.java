@@ -34,11 +34,13 @@ public class JConsoleTest {
 
         var console = new Object();
         var dispatcher = new CommandDispatcher<>();
+        var parseCache = new ConsoleParseCache<>(dispatcher, console);
 
+        var completer = new BrigadierCompleter<>(parseCache);
         var reader = LineReaderBuilder.builder()
                 .terminal(terminal)
-                .highlighter(new BrigadierHighlighter<>(dispatcher, console))
-                .completer(new BrigadierCompleter<>(dispatcher, console))
+                .highlighter(new BrigadierHighlighter<>(parseCache))
+                .completer(completer)
                 .build();
 
 
@@ -95,6 +97,7 @@ public class JConsoleTest {
         try {
             while (true) {
                 var nextLine = reader.readLine("> ");
+                completer.accepted(nextLine);
                 try {
                     dispatcher.execute(nextLine, console);
                 } catch (Throwable throwable) {
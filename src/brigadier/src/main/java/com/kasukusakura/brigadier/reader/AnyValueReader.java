@@ -147,6 +147,16 @@ public class AnyValueReader {
         return sinks.get(sinkCursor).canRead(this, sinkCursor, 0);
     }
 
+    /**
+     * @return the length of the whole content, all values will be converted to char sequences
+     */
+    public int getTotalLength() {
+        for (int i = 0, sinksSize = sinks.size(); i < sinksSize; i++) {
+            sinks.get(i).initialize(this, i);
+        }
+        return sinks.get(sinks.size() - 1).cursorStart;
+    }
+
     public CharSequence fetchContent(int start, int end) {
         if (start == end) return "";
         if (start > end) return "";
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Immutable BK-tree of strings under the case-insensitive Levenshtein distance.
+ * <p>
+ * A search only visits the subtrees whose edge distance is within the searched distance of the query,
+ * and stops computing a distance once it exceeds what any subtree could still match.
+ */
+public final class BKTree {
+    private static final int[] NO_KEYS = new int[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root;
+    private final int size;
+
+    private BKTree(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static BKTree of(Iterable<String> values) {
+        Node root = null;
+        int size = 0;
+        for (String value : values) {
+            if (root == null) {
+                root = new Node(value);
+                size++;
+            } else if (root.insert(value)) {
+                size++;
+            }
+        }
+        return new BKTree(root, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the values within the distance of the query, closest first
+     */
+    public List<String> search(String query, int maxDistance, int limit) {
+        if (root == null || maxDistance < 0 || limit < 1) return Collections.emptyList();
+
+        List<Match> matches = new ArrayList<>();
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = distance(query, node.value, node.maxKey + maxDistance);
+            if (distance <= maxDistance) {
+                matches.add(new Match(node.value, distance));
+            }
+            for (int i = 0; i < node.keys.length; i++) {
+                if (Math.abs(node.keys[i] - distance) <= maxDistance) {
+                    pending.push(node.children[i]);
+                }
+            }
+        }
+
+        matches.sort(Comparator.<Match>comparingInt(match -> match.distance).thenComparing(match -> match.value, String.CASE_INSENSITIVE_ORDER));
+        List<String> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            result.add(matches.get(i).value);
+        }
+        return result;
+    }
+
+    public static int distance(CharSequence a, CharSequence b) {
+        return distance(a, b, Integer.MAX_VALUE - 1);
+    }
+
+    /**
+     * @return the case-insensitive Levenshtein distance, or {@code bound + 1} if it exceeds the bound
+     */
+    public static int distance(CharSequence a, CharSequence b, int bound) {
+        int aLength = a.length(), bLength = b.length();
+        if (Math.abs(aLength - bLength) > bound) return bound + 1;
+
+        int[] previous = new int[bLength + 1];
+        int[] current = new int[bLength + 1];
+        for (int j = 0; j <= bLength; j++) previous[j] = j;
+
+        for (int i = 1; i <= aLength; i++) {
+            current[0] = i;
+            int rowMin = i;
+            char ac = Character.toLowerCase(a.charAt(i - 1));
+            for (int j = 1; j <= bLength; j++) {
+                int cost = ac == Character.toLowerCase(b.charAt(j - 1)) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1], previous[j]) + 1, previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > bound) return bound + 1;
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[bLength], bound + 1);
+    }
+
+    private static final class Node {
+        final String value;
+        int[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        int maxKey;
+
+        Node(String value) {
+            this.value = value;
+        }
+
+        /**
+         * @return {@code false} if the value is already present
+         */
+        boolean insert(String value) {
+            Node node = this;
+            while (true) {
+                if (node.value.equals(value)) return false;
+
+                int distance = distance(value, node.value);
+                Node child = node.child(distance);
+                if (child == null) {
+                    node.add(distance, new Node(value));
+                    return true;
+                }
+                node = child;
+            }
+        }
+
+        private Node child(int key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) return children[i];
+            }
+            return null;
+        }
+
+        private void add(int key, Node child) {
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = key;
+            children[children.length - 1] = child;
+            maxKey = Math.max(maxKey, key);
+        }
+    }
+
+    private static final class Match {
+        final String value;
+        final int distance;
+
+        Match(String value, int distance) {
+            this.value = value;
+            this.distance = distance;
+        }
+    }
+}
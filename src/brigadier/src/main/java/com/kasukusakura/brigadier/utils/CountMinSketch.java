@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Approximate frequencies of keys in constant memory.
+ * <p>
+ * Each key increments one counter per row, its estimate is the smallest of them, so estimates never undercount.
+ * After {@code sampleSize} additions all counters are halved, older additions weigh less than recent ones.
+ */
+public final class CountMinSketch {
+    private final AtomicIntegerArray counters;
+    private final int depth;
+    private final int mask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    /**
+     * @param width      counters per row, rounded up to a power of two
+     * @param depth      count of rows
+     * @param sampleSize additions before the counters are halved
+     */
+    public CountMinSketch(int width, int depth, int sampleSize) {
+        if (width < 1) throw new IllegalArgumentException("width must be positive: " + width);
+        if (depth < 1) throw new IllegalArgumentException("depth must be positive: " + depth);
+        if (sampleSize < 1) throw new IllegalArgumentException("sampleSize must be positive: " + sampleSize);
+
+        int size = Integer.highestOneBit(width);
+        if (size < width) size <<= 1;
+        this.mask = size - 1;
+        this.depth = depth;
+        this.sampleSize = sampleSize;
+        this.counters = new AtomicIntegerArray(size * depth);
+    }
+
+    public void add(Object key) {
+        add(key, 1);
+    }
+
+    public void add(Object key, int count) {
+        int hash = key.hashCode();
+        for (int row = 0; row < depth; row++) {
+            int index = row * (mask + 1) + indexOf(hash, row);
+            int value;
+            do {
+                value = counters.get(index);
+                if (value > Integer.MAX_VALUE - count) break; // Saturated
+            } while (!counters.compareAndSet(index, value, value + count));
+        }
+
+        if (additions.addAndGet(count) >= sampleSize) {
+            additions.set(0);
+            decay();
+        }
+    }
+
+    public int estimate(Object key) {
+        int hash = key.hashCode();
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(row * (mask + 1) + indexOf(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halve all counters
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            int value;
+            do {
+                value = counters.get(i);
+            } while (value != 0 && !counters.compareAndSet(i, value, value >>> 1));
+        }
+    }
+
+    private int indexOf(int hash, int row) {
+        int h = hash + row * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h & mask;
+    }
+}
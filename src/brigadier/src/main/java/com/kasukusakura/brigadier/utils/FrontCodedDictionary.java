@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Immutable sorted set of strings, front coded in blocks.
+ * <p>
+ * Strings are stored as UTF-8 and ordered by their bytes. The first string of a block is stored whole,
+ * the others as the length of the prefix shared with the previous string and the remaining bytes.
+ * Lookups binary search the first strings of the blocks, then decode one block.
+ * <p>
+ * The encoded form is a single buffer that can be written to a file and memory mapped back.
+ * Instances are safe for concurrent use.
+ */
+public final class FrontCodedDictionary {
+    private static final int MAGIC = 0x46434431; // FCD1
+    private static final int HEADER_SIZE = 12;
+    public static final int DEFAULT_BLOCK_SIZE = 16;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int blockSize;
+    private final int blockCount;
+    private final int dataStart;
+
+    private FrontCodedDictionary(ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a front coded dictionary");
+        }
+        this.buffer = buffer;
+        this.size = buffer.getInt(4);
+        this.blockSize = buffer.getInt(8);
+        this.blockCount = (size + blockSize - 1) / blockSize;
+        this.dataStart = HEADER_SIZE + blockCount * 4;
+    }
+
+    public static FrontCodedDictionary of(Iterable<String> values) {
+        return of(values, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Duplicated values are stored once
+     */
+    public static FrontCodedDictionary of(Iterable<String> values, int blockSize) {
+        if (blockSize < 1) throw new IllegalArgumentException("blockSize must be positive: " + blockSize);
+
+        List<byte[]> encoded = new ArrayList<>();
+        for (String value : values) {
+            encoded.add(value.getBytes(StandardCharsets.UTF_8));
+        }
+        encoded.sort(FrontCodedDictionary::compare);
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        List<Integer> offsets = new ArrayList<>();
+        byte[] previous = null;
+        int count = 0;
+        for (byte[] value : encoded) {
+            if (previous != null && compare(previous, value) == 0) continue;
+
+            if (count % blockSize == 0) {
+                offsets.add(data.size());
+                writeVarint(data, value.length);
+                data.write(value, 0, value.length);
+            } else {
+                int shared = sharedPrefix(previous, value);
+                writeVarint(data, shared);
+                writeVarint(data, value.length - shared);
+                data.write(value, shared, value.length - shared);
+            }
+            previous = value;
+            count++;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + offsets.size() * 4 + data.size());
+        buffer.putInt(MAGIC).putInt(count).putInt(blockSize);
+        for (int offset : offsets) buffer.putInt(offset);
+        buffer.put(data.toByteArray());
+        buffer.clear();
+        return new FrontCodedDictionary(buffer.asReadOnlyBuffer());
+    }
+
+    /**
+     * Wraps the encoded form of a dictionary, the buffer must not be modified afterwards
+     */
+    public static FrontCodedDictionary wrap(ByteBuffer buffer) {
+        return new FrontCodedDictionary(buffer.duplicate());
+    }
+
+    /**
+     * Memory maps a file written by {@link #writeTo(Path)}
+     */
+    public static FrontCodedDictionary load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new FrontCodedDictionary(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public void writeTo(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer content = buffer.duplicate();
+            content.clear();
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the size of the encoded form
+     */
+    public int sizeInBytes() {
+        return buffer.limit();
+    }
+
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Cursor cursor = new Cursor();
+        cursor.seekBlock(index / blockSize);
+        while (cursor.index < index) cursor.next();
+        return cursor.value();
+    }
+
+    /**
+     * @return the index of the value, or {@code -1} if absent
+     */
+    public int indexOf(String value) {
+        byte[] key = value.getBytes(StandardCharsets.UTF_8);
+        Cursor cursor = lowerBound(key);
+        if (cursor != null && cursor.compareTo(key) == 0) return cursor.index;
+        return -1;
+    }
+
+    public boolean contains(String value) {
+        return indexOf(value) != -1;
+    }
+
+    /**
+     * Visits the values starting with the prefix in order, until the action returns {@code false}
+     */
+    public void forEachWithPrefix(String prefix, Predicate<String> action) {
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        Cursor cursor = lowerBound(key);
+        if (cursor == null) return;
+
+        do {
+            if (!cursor.startsWith(key)) return;
+            if (!action.test(cursor.value())) return;
+        } while (cursor.next());
+    }
+
+    /**
+     * @return a cursor at the first value not less than the key, or {@code null} if there is none
+     */
+    private Cursor lowerBound(byte[] key) {
+        if (size == 0) return null;
+
+        // Last block starting before the key
+        int low = 0, high = blockCount - 1, block = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compareBlockStart(mid, key) < 0) {
+                block = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        Cursor cursor = new Cursor();
+        cursor.seekBlock(block);
+        while (cursor.compareTo(key) < 0) {
+            if (!cursor.next()) return null;
+        }
+        return cursor;
+    }
+
+    private int compareBlockStart(int block, byte[] key) {
+        int[] position = {dataStart + buffer.getInt(HEADER_SIZE + block * 4)};
+        int length = readVarint(buffer, position);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int result = (buffer.get(position[0] + i) & 0xFF) - (key[i] & 0xFF);
+            if (result != 0) return result;
+        }
+        return length - key.length;
+    }
+
+    private final class Cursor {
+        private final int[] position = new int[1];
+        private byte[] bytes = new byte[32];
+        private int length;
+        int index;
+
+        void seekBlock(int block) {
+            index = block * blockSize;
+            position[0] = dataStart + buffer.getInt(HEADER_SIZE + block * 4);
+            read(0, readVarint(buffer, position));
+        }
+
+        boolean next() {
+            if (index + 1 >= size) return false;
+
+            index++;
+            if (index % blockSize == 0) {
+                read(0, readVarint(buffer, position));
+            } else {
+                int shared = readVarint(buffer, position);
+                read(shared, readVarint(buffer, position));
+            }
+            return true;
+        }
+
+        private void read(int offset, int count) {
+            length = offset + count;
+            if (bytes.length < length) {
+                byte[] grown = new byte[Math.max(length, bytes.length * 2)];
+                System.arraycopy(bytes, 0, grown, 0, offset);
+                bytes = grown;
+            }
+            int from = position[0];
+            for (int i = 0; i < count; i++) {
+                bytes[offset + i] = buffer.get(from + i);
+            }
+            position[0] = from + count;
+        }
+
+        int compareTo(byte[] key) {
+            return FrontCodedDictionary.compare(bytes, length, key, key.length);
+        }
+
+        boolean startsWith(byte[] prefix) {
+            if (length < prefix.length) return false;
+            for (int i = 0; i < prefix.length; i++) {
+                if (bytes[i] != prefix[i]) return false;
+            }
+            return true;
+        }
+
+        String value() {
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static int compare(byte[] a, byte[] b) {
+        return compare(a, a.length, b, b.length);
+    }
+
+    private static int compare(byte[] a, int aLength, byte[] b, int bLength) {
+        int common = Math.min(aLength, bLength);
+        for (int i = 0; i < common; i++) {
+            int result = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (result != 0) return result;
+        }
+        return aLength - bLength;
+    }
+
+    private static int sharedPrefix(byte[] a, byte[] b) {
+        int common = Math.min(a.length, b.length);
+        int i = 0;
+        while (i < common && a[i] == b[i]) i++;
+        return i;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer buffer, int[] position) {
+        int result = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get(position[0]++);
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) return result;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Access to virtual threads without requiring the runtime to support them.
+ */
+public class VirtualThreads {
+    private static final Executor EXECUTOR;
+
+    static {
+        Executor executor = null;
+        try {
+            Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            executor = (Executor) factory.invoke(null);
+        } catch (Throwable ignored) {
+            // Java 20 or older
+        }
+        EXECUTOR = executor;
+    }
+
+    public static boolean isSupported() {
+        return EXECUTOR != null;
+    }
+
+    /**
+     * @return an executor starting a virtual thread per task, or {@code null} if not supported
+     */
+    public static Executor executor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * @return an executor starting a virtual thread per task, or the common pool if not supported
+     */
+    public static Executor executorOrCommonPool() {
+        return EXECUTOR != null ? EXECUTOR : ForkJoinPool.commonPool();
+    }
+}
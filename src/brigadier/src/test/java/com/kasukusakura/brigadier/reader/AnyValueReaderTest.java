@@ -121,6 +121,12 @@ public class AnyValueReaderTest {
 
         }
 
+        @Test
+        void testTotalLength() {
+            Assertions.assertEquals(7, new AnyValueReader("12 34", "5").getTotalLength());
+            Assertions.assertEquals(7, new AnyValueReader("12 34", new SpecialWord("5")).getTotalLength());
+        }
+
         @Test
         void testReadSplitting() {
             var special1 = new SpecialWord("s 1");
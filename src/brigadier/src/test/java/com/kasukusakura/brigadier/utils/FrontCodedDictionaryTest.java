@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) KasukuSakura Technologies. All rights reserved.
+ * Licensed under the MIT license.
+ */
+
+package com.kasukusakura.brigadier.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FrontCodedDictionaryTest {
+    static List<String> prefixed(FrontCodedDictionary dictionary, String prefix) {
+        var result = new ArrayList<String>();
+        dictionary.forEachWithPrefix(prefix, result::add);
+        return result;
+    }
+
+    @Test
+    void testLookup() {
+        var dictionary = FrontCodedDictionary.of(List.of("stone", "stick", "stairs", "apple", "stone", "sand", "z\u00e9bu"), 2);
+        Assertions.assertEquals(6, dictionary.size());
+        Assertions.assertEquals("apple", dictionary.get(0));
+        Assertions.assertEquals("stone", dictionary.get(4));
+        Assertions.assertEquals(5, dictionary.indexOf("z\u00e9bu"));
+        Assertions.assertEquals(-1, dictionary.indexOf("st"));
+        Assertions.assertEquals(-1, dictionary.indexOf("zzz"));
+        Assertions.assertEquals(-1, dictionary.indexOf("a"));
+
+        Assertions.assertEquals(List.of("stairs", "stick", "stone"), prefixed(dictionary, "st"));
+        Assertions.assertEquals(List.of("sand", "stairs", "stick", "stone"), prefixed(dictionary, "s"));
+        Assertions.assertEquals(List.of(), prefixed(dictionary, "b"));
+        Assertions.assertEquals(6, prefixed(dictionary, "").size());
+    }
+
+    @Test
+    void testMapped() throws Exception {
+        var values = new ArrayList<String>();
+        for (int i = 0; i < 5000; i++) values.add("region_" + i);
+        var file = Files.createTempFile("dictionary", ".fcd");
+        try {
+            FrontCodedDictionary.of(values).writeTo(file);
+            var dictionary = FrontCodedDictionary.load(file);
+            Assertions.assertEquals(5000, dictionary.size());
+            for (String value : values) {
+                Assertions.assertEquals(value, dictionary.get(dictionary.indexOf(value)));
+            }
+            Assertions.assertEquals(List.of("region_4999"), prefixed(dictionary, "region_4999"));
+            Assertions.assertEquals(11, prefixed(dictionary, "region_123").size());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}